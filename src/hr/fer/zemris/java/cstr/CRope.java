@@ -0,0 +1,561 @@
+package hr.fer.zemris.java.cstr;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Unmodifiable string for very long texts which are edited by repeated
+ * concatenation and slicing. It offers the same operations as
+ * {@link CString}, but it is stored as a binary tree whose leaves are
+ * CString objects sharing their character arrays, and whose inner nodes are
+ * concatenations of their two children. Concatenating two ropes creates
+ * a single new node and slicing a rope creates new nodes only along the two
+ * paths to its ends, so both take O(log n) time, and neither copies the
+ * characters of the leaves.
+ * <p>
+ * Ropes shorter than a small threshold are flattened into a single leaf, so
+ * that short texts don't consist of many tiny leaves. The tree is kept
+ * balanced like an AVL tree: the depths of the two children of a node differ
+ * by at most one, and a concatenation of ropes of different depths is joined
+ * into the right or left edge of the deeper one and rebalanced by rotations
+ * on the way back up, so the depth of a rope of n leaves stays O(log n).
+ *
+ * @author labramusic
+ *
+ */
+public class CRope {
+
+	/**
+	 * Length up to which a rope is always stored as a single leaf.
+	 */
+	private final static int FLAT_LENGTH = 512;
+
+	/**
+	 * Empty rope.
+	 */
+	private final static CRope EMPTY = new CRope(new CString(new char[0]));
+
+	/**
+	 * Characters of a leaf, or null for a concatenation.
+	 */
+	private CString leaf;
+
+	/**
+	 * Left child of a concatenation.
+	 */
+	private CRope left;
+
+	/**
+	 * Right child of a concatenation.
+	 */
+	private CRope right;
+
+	/**
+	 * Number of characters.
+	 */
+	private int length;
+
+	/**
+	 * Length of the longest path from this node to a leaf.
+	 */
+	private int depth;
+
+	/**
+	 * Constructor which creates a leaf with the characters of the given
+	 * string. The characters are shared, not copied.
+	 *
+	 * @param s
+	 *            string content
+	 */
+	public CRope(CString s) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		leaf = s;
+		length = s.length();
+	}
+
+	/**
+	 * Constructor which creates a concatenation of the two given ropes.
+	 *
+	 * @param left
+	 *            left child
+	 * @param right
+	 *            right child
+	 */
+	private CRope(CRope left, CRope right) {
+		this.left = left;
+		this.right = right;
+		length = left.length + right.length;
+		depth = Math.max(left.depth, right.depth) + 1;
+	}
+
+	/**
+	 * Returns a new rope with the same character data as the given Java's
+	 * String object.
+	 *
+	 * @param s
+	 *            a Java string object
+	 * @return rope with the same character data
+	 */
+	public static CRope fromString(String s) {
+		return new CRope(CString.fromString(s));
+	}
+
+	/**
+	 * Returns the length of the rope.
+	 *
+	 * @return rope length
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * Returns the character at given index position, in O(log n). Index must
+	 * be between 0 and n-1, where n is the number of characters in the rope.
+	 *
+	 * @param index
+	 *            index value
+	 * @return character at given index
+	 */
+	public char charAt(int index) {
+		if (index < 0 || index > length - 1) {
+			throw new IndexOutOfBoundsException();
+		}
+		CRope node = this;
+		while (node.leaf == null) {
+			if (index < node.left.length) {
+				node = node.left;
+			} else {
+				index -= node.left.length;
+				node = node.right;
+			}
+		}
+		return node.leaf.charAt(index);
+	}
+
+	/**
+	 * Returns a new rope which is a concatenation of this and the given
+	 * rope, in O(log n).
+	 *
+	 * @param r
+	 *            rope to be concatenated with this one
+	 * @return concatenation of the two ropes
+	 */
+	public CRope add(CRope r) {
+		if (r == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		return concat(this, r);
+	}
+
+	/**
+	 * Returns a new rope which is a concatenation of this rope and the given
+	 * string, in O(log n).
+	 *
+	 * @param s
+	 *            string to be concatenated with this rope
+	 * @return concatenation of the rope and the string
+	 */
+	public CRope add(CString s) {
+		return add(new CRope(s));
+	}
+
+	/**
+	 * Returns a new rope which represents a part of this rope, in O(log n).
+	 * The position endIndex does not belong to the substring. As in
+	 * {@link CString#substring(int, int)}, the starting index must be 0 or
+	 * greater and less than the rope length, and the ending index must be
+	 * equal to the starting index or greater, but not greater than the rope
+	 * length.
+	 *
+	 * @param startIndex
+	 *            starting index, inclusive
+	 * @param endIndex
+	 *            end index, exclusive
+	 * @return part of this rope
+	 */
+	public CRope substring(int startIndex, int endIndex) {
+		if (startIndex < 0 || startIndex >= length) {
+			throw new IllegalArgumentException("Illegal starting index.");
+		}
+		if (endIndex < startIndex || endIndex > length) {
+			throw new IllegalArgumentException("Illegal end index.");
+		}
+		return slice(startIndex, endIndex);
+	}
+
+	/**
+	 * Returns a new rope which represents the starting part of this rope and
+	 * is of length n. The length n must be at least 0 and cannot be greater
+	 * than the rope length.
+	 *
+	 * @param n
+	 *            length of new rope
+	 * @return starting part of this rope with length n
+	 */
+	public CRope left(int n) {
+		if (n < 0 || n > length) {
+			throw new IllegalArgumentException("Illegal length.");
+		}
+		return slice(0, n);
+	}
+
+	/**
+	 * Returns a new rope which represents the ending part of this rope and
+	 * is of length n. The length n must be at least 0 and cannot be greater
+	 * than the rope length.
+	 *
+	 * @param n
+	 *            length of new rope
+	 * @return ending part of this rope with length n
+	 */
+	public CRope right(int n) {
+		if (n < 0 || n > length) {
+			throw new IllegalArgumentException("Illegal length.");
+		}
+		return slice(length - n, length);
+	}
+
+	/**
+	 * Returns the index of first occurrence of character in the rope or -1
+	 * if the rope doesn't contain the given character.
+	 *
+	 * @param c
+	 *            character being searched for
+	 * @return index of character in the rope
+	 */
+	public int indexOf(char c) {
+		int position = 0;
+		for (LeafIterator it = new LeafIterator(this); it.hasNext();) {
+			CString s = it.next();
+			int index = s.indexOf(c);
+			if (index >= 0) {
+				return position + index;
+			}
+			position += s.length();
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given string in this
+	 * rope, or -1 if this rope doesn't contain it.
+	 *
+	 * @param s
+	 *            string being searched for
+	 * @return index of the first occurrence, or -1
+	 */
+	public int indexOf(CString s) {
+		return indexOf(CString.compile(s));
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given pattern in this
+	 * rope, or -1 if this rope doesn't contain it. The leaves are searched in
+	 * a single linear pass, including the occurrences crossing them.
+	 *
+	 * @param pattern
+	 *            pattern being searched for
+	 * @return index of the first occurrence, or -1
+	 */
+	public int indexOf(CStringPattern pattern) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		if (pattern.length() == 0) {
+			return 0;
+		}
+		int position = 0;
+		int matched = 0;
+		for (LeafIterator it = new LeafIterator(this); it.hasNext();) {
+			CString s = it.next();
+			matched = s.resumeSearch(pattern, matched);
+			if (matched < 0) {
+				// index of the last character of the occurrence
+				return position + (-1 - matched) - pattern.length() + 1;
+			}
+			position += s.length();
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns true if this rope contains given string at any position, false
+	 * otherwise.
+	 *
+	 * @param s
+	 *            string being searched for
+	 * @return true if rope contains the string
+	 */
+	public boolean contains(CString s) {
+		return indexOf(s) >= 0;
+	}
+
+	/**
+	 * Returns true if this rope begins with the given string, false
+	 * otherwise.
+	 *
+	 * @param s
+	 *            string being compared to the start of the rope
+	 * @return true if rope begins with given string
+	 */
+	public boolean startsWith(CString s) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		return s.length() <= length && regionMatches(0, s);
+	}
+
+	/**
+	 * Returns true if this rope ends with the given string, false otherwise.
+	 *
+	 * @param s
+	 *            string being compared to the end of the rope
+	 * @return true if rope ends with given string
+	 */
+	public boolean endsWith(CString s) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		return s.length() <= length && regionMatches(length - s.length(), s);
+	}
+
+	/**
+	 * Allocates a new array of length equal to the rope length, copies the
+	 * rope content into it and returns it.
+	 *
+	 * @return character array of data
+	 */
+	public char[] toCharArray() {
+		char[] array = new char[length];
+		int position = 0;
+		for (LeafIterator it = new LeafIterator(this); it.hasNext();) {
+			CString s = it.next();
+			s.getChars(0, s.length(), array, position);
+			position += s.length();
+		}
+		return array;
+	}
+
+	/**
+	 * Returns a CString with the content of this rope. The characters are
+	 * copied only if the rope has more than one leaf.
+	 *
+	 * @return CString with the content of this rope
+	 */
+	public CString toCString() {
+		if (leaf != null) {
+			return leaf;
+		}
+		return new CString(toCharArray());
+	}
+
+	@Override
+	public String toString() {
+		return new String(toCharArray());
+	}
+
+	/**
+	 * Returns the length of the longest path from the root to a leaf.
+	 *
+	 * @return depth of the rope tree
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Checks if the part of this rope starting at the given index
+	 * is equal to the given string, which must fit into the rope.
+	 *
+	 * @param index
+	 *            starting index in this rope
+	 * @param s
+	 *            string being compared
+	 * @return true if the part of the rope is equal to the string
+	 */
+	private boolean regionMatches(int index, CString s) {
+		int position = 0;
+		for (LeafIterator it = new LeafIterator(slice(index, index + s.length())); it.hasNext();) {
+			CString part = it.next();
+			// parts of equal length are equal if one starts with the other
+			if (!part.startsWith(s.substring(position, position + part.length()))) {
+				return false;
+			}
+			position += part.length();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the part of this rope from the starting index (inclusive) to
+	 * the end index (exclusive), sharing the leaves and the subtrees which
+	 * are completely inside of it.
+	 *
+	 * @param startIndex
+	 *            starting index, inclusive
+	 * @param endIndex
+	 *            end index, exclusive
+	 * @return part of this rope
+	 */
+	private CRope slice(int startIndex, int endIndex) {
+		if (startIndex == 0 && endIndex == length) {
+			return this;
+		}
+		if (startIndex == endIndex) {
+			return EMPTY;
+		}
+		if (leaf != null) {
+			return new CRope(leaf.substring(startIndex, endIndex));
+		}
+		int middle = left.length;
+		if (endIndex <= middle) {
+			return left.slice(startIndex, endIndex);
+		}
+		if (startIndex >= middle) {
+			return right.slice(startIndex - middle, endIndex - middle);
+		}
+		return concat(left.slice(startIndex, middle), right.slice(0, endIndex - middle));
+	}
+
+	/**
+	 * Returns the concatenation of the two ropes. Short results are flattened
+	 * into a single leaf, while longer ones are joined into a balanced tree.
+	 *
+	 * @param first
+	 *            first rope
+	 * @param second
+	 *            second rope
+	 * @return concatenation of the ropes
+	 */
+	private static CRope concat(CRope first, CRope second) {
+		if (first.length == 0) {
+			return second;
+		}
+		if (second.length == 0) {
+			return first;
+		}
+		if ((long) first.length + second.length > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Resulting rope is too long.");
+		}
+		if (first.length + second.length <= FLAT_LENGTH) {
+			return flatten(first, second);
+		}
+		return balance(first, second);
+	}
+
+	/**
+	 * Returns a balanced rope which is a concatenation of the two balanced
+	 * ropes. If one rope is deeper than the other by more than one, the other
+	 * rope is concatenated with the nearer child of the deeper one, and the
+	 * result is rebalanced.
+	 *
+	 * @param first
+	 *            first rope
+	 * @param second
+	 *            second rope
+	 * @return balanced concatenation of the ropes
+	 */
+	private static CRope balance(CRope first, CRope second) {
+		if (first.depth > second.depth + 2) {
+			return balance(first.left, concat(first.right, second));
+		}
+		if (second.depth > first.depth + 2) {
+			return balance(concat(first, second.left), second.right);
+		}
+		if (first.depth == second.depth + 2) {
+			// rotate to the right
+			CRope outer = first.left;
+			CRope inner = first.right;
+			if (inner.depth <= outer.depth) {
+				return new CRope(outer, new CRope(inner, second));
+			}
+			return new CRope(new CRope(outer, inner.left), new CRope(inner.right, second));
+		}
+		if (second.depth == first.depth + 2) {
+			// rotate to the left
+			CRope outer = second.right;
+			CRope inner = second.left;
+			if (inner.depth <= outer.depth) {
+				return new CRope(new CRope(first, inner), outer);
+			}
+			return new CRope(new CRope(first, inner.left), new CRope(inner.right, outer));
+		}
+		return new CRope(first, second);
+	}
+
+	/**
+	 * Returns a single leaf with the characters of both ropes.
+	 *
+	 * @param first
+	 *            first rope
+	 * @param second
+	 *            second rope
+	 * @return leaf with the characters of both ropes
+	 */
+	private static CRope flatten(CRope first, CRope second) {
+		CStringBuilder builder = new CStringBuilder(first.length + second.length);
+		for (LeafIterator it = new LeafIterator(first); it.hasNext();) {
+			builder.append(it.next());
+		}
+		for (LeafIterator it = new LeafIterator(second); it.hasNext();) {
+			builder.append(it.next());
+		}
+		return new CRope(builder.build());
+	}
+
+	/**
+	 * Iterator over the leaves of a rope, from left to right.
+	 *
+	 * @author labramusic
+	 *
+	 */
+	private static class LeafIterator {
+
+		/**
+		 * Right children of the nodes on the path to the current leaf,
+		 * which are yet to be visited.
+		 */
+		private Deque<CRope> pending;
+
+		/**
+		 * Constructor which starts at the leftmost leaf of the given rope.
+		 *
+		 * @param rope
+		 *            rope
+		 */
+		public LeafIterator(CRope rope) {
+			pending = new ArrayDeque<>();
+			if (rope.length > 0) {
+				pending.push(rope);
+			}
+		}
+
+		/**
+		 * Checks if there are more leaves.
+		 *
+		 * @return true if there are more leaves
+		 */
+		public boolean hasNext() {
+			return !pending.isEmpty();
+		}
+
+		/**
+		 * Returns the characters of the next leaf.
+		 *
+		 * @return next leaf
+		 */
+		public CString next() {
+			CRope node = pending.pop();
+			while (node.leaf == null) {
+				pending.push(node.right);
+				node = node.left;
+			}
+			return node.leaf;
+		}
+
+	}
+
+}
@@ -1,5 +1,7 @@
 package hr.fer.zemris.java.cstr;
 
+import java.util.Arrays;
+
 /**
  * Class which offers similar functionality as the old official implementation
  * of the String class: it represents unmodifiable strings on which substring
@@ -47,7 +49,8 @@ public class CString {
 			throw new IllegalArgumentException("Illegal count value.");
 		}
 		this.data = data;
-		this.offset = offset;
+		// the offset of an empty string is not checked, so it is not kept
+		this.offset = count == 0 ? 0 : offset;
 		this.count = count;
 	}
 
@@ -130,16 +133,34 @@ public class CString {
 	 * @return character array of data
 	 */
 	public char[] toCharArray() {
-		char[] array = new char[count];
-		for (int i = offset, j = 0; i < offset + count; ++i) {
-			array[j++] = data[i];
+		return Arrays.copyOfRange(data, offset, offset + count);
+	}
+
+	/**
+	 * Copies the characters from the starting index (inclusive) to the end
+	 * index (exclusive) into the destination array, starting at the given
+	 * destination index. Throws IndexOutOfBoundsException if the indexes
+	 * are out of bounds.
+	 * 
+	 * @param srcBegin
+	 *            starting index in this string, inclusive
+	 * @param srcEnd
+	 *            end index in this string, exclusive
+	 * @param dst
+	 *            destination array
+	 * @param dstBegin
+	 *            starting index in the destination array
+	 */
+	public void getChars(int srcBegin, int srcEnd, char[] dst, int dstBegin) {
+		if (srcBegin < 0 || srcEnd < srcBegin || srcEnd > count) {
+			throw new IndexOutOfBoundsException();
 		}
-		return array;
+		System.arraycopy(data, offset + srcBegin, dst, dstBegin, srcEnd - srcBegin);
 	}
 
 	@Override
 	public String toString() {
-		return new String(this.toCharArray());
+		return new String(data, offset, count);
 	}
 
 	/**
@@ -159,6 +180,202 @@ public class CString {
 		return -1;
 	}
 
+	/**
+	 * Returns the index of the first occurrence of the given string in this
+	 * string, or -1 if this string doesn't contain it.
+	 * 
+	 * @param s
+	 *            string being searched for
+	 * @return index of the first occurrence, or -1
+	 */
+	public int indexOf(CString s) {
+		return indexOf(s, 0);
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given string in this
+	 * string which starts at the given index or later, or -1 if there is none.
+	 * 
+	 * @param s
+	 *            string being searched for
+	 * @param fromIndex
+	 *            index from which the search starts
+	 * @return index of the first occurrence, or -1
+	 */
+	public int indexOf(CString s, int fromIndex) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		if (s.count > 2) {
+			return indexOf(compile(s), fromIndex);
+		}
+		// too short to be worth compiling
+		int from = Math.min(Math.max(fromIndex, 0), count);
+		if (s.count == 0) {
+			return from;
+		}
+		char first = s.data[s.offset];
+		if (s.count == 1) {
+			for (int i = offset + from, end = offset + count; i < end; ++i) {
+				if (data[i] == first) {
+					return i - offset;
+				}
+			}
+			return -1;
+		}
+		char second = s.data[s.offset + 1];
+		for (int i = offset + from, end = offset + count - 1; i < end; ++i) {
+			if (data[i] == first && data[i + 1] == second) {
+				return i - offset;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given pattern in this
+	 * string, or -1 if this string doesn't contain it.
+	 * 
+	 * @param pattern
+	 *            pattern being searched for
+	 * @return index of the first occurrence, or -1
+	 */
+	public int indexOf(CStringPattern pattern) {
+		return indexOf(pattern, 0);
+	}
+
+	/**
+	 * Returns the index of the first occurrence of the given pattern in this
+	 * string which starts at the given index or later, or -1 if there is none.
+	 * 
+	 * @param pattern
+	 *            pattern being searched for
+	 * @param fromIndex
+	 *            index from which the search starts
+	 * @return index of the first occurrence, or -1
+	 */
+	public int indexOf(CStringPattern pattern, int fromIndex) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		int from = Math.min(Math.max(fromIndex, 0), count);
+		int index = pattern.search(data, offset + from, offset + count);
+		return index < 0 ? -1 : index - offset;
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the given string in this
+	 * string, or -1 if this string doesn't contain it.
+	 * 
+	 * @param s
+	 *            string being searched for
+	 * @return index of the last occurrence, or -1
+	 */
+	public int lastIndexOf(CString s) {
+		return lastIndexOf(s, count);
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the given string in this
+	 * string which starts at the given index or earlier, or -1 if there
+	 * is none.
+	 * 
+	 * @param s
+	 *            string being searched for
+	 * @param fromIndex
+	 *            index from which the search starts backwards
+	 * @return index of the last occurrence, or -1
+	 */
+	public int lastIndexOf(CString s, int fromIndex) {
+		return lastIndexOf(compile(s), fromIndex);
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the given pattern in this
+	 * string, or -1 if this string doesn't contain it.
+	 * 
+	 * @param pattern
+	 *            pattern being searched for
+	 * @return index of the last occurrence, or -1
+	 */
+	public int lastIndexOf(CStringPattern pattern) {
+		return lastIndexOf(pattern, count);
+	}
+
+	/**
+	 * Returns the index of the last occurrence of the given pattern in this
+	 * string which starts at the given index or earlier, or -1 if there
+	 * is none.
+	 * 
+	 * @param pattern
+	 *            pattern being searched for
+	 * @param fromIndex
+	 *            index from which the search starts backwards
+	 * @return index of the last occurrence, or -1
+	 */
+	public int lastIndexOf(CStringPattern pattern, int fromIndex) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		if (fromIndex < 0) {
+			return -1;
+		}
+		int end = (int) Math.min((long) fromIndex + pattern.length(), count);
+		int index = pattern.searchBackward(data, offset, offset + end);
+		return index < 0 ? -1 : index - offset;
+	}
+
+	/**
+	 * Returns the indexes of all the occurrences of the given string in this
+	 * string, from first to last. Occurrences don't overlap, so the search for
+	 * the next occurrence starts after the end of the previous one.
+	 * 
+	 * @param s
+	 *            string being searched for
+	 * @return indexes of the occurrences
+	 */
+	public int[] indexesOf(CString s) {
+		return indexesOf(compile(s));
+	}
+
+	/**
+	 * Returns the indexes of all the occurrences of the given pattern in this
+	 * string, from first to last. Occurrences don't overlap, so the search for
+	 * the next occurrence starts after the end of the previous one.
+	 * 
+	 * @param pattern
+	 *            pattern being searched for
+	 * @return indexes of the occurrences
+	 */
+	public int[] indexesOf(CStringPattern pattern) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		int[] indexes = pattern.searchAll(data, offset, offset + count, Integer.MAX_VALUE);
+		for (int i = 0; i < indexes.length; ++i) {
+			indexes[i] -= offset;
+		}
+		return indexes;
+	}
+
+	/**
+	 * Continues a search for the given pattern, whose previous part ended
+	 * with the given number of pattern characters matched, through this
+	 * string. The pattern must not be empty.
+	 * 
+	 * @param pattern
+	 *            pattern being searched for
+	 * @param matched
+	 *            number of pattern characters matched before this string
+	 * @return number of pattern characters matched at the end of this
+	 *         string, or, if the pattern was found, -1 minus the index of its
+	 *         last character in this string
+	 */
+	int resumeSearch(CStringPattern pattern, int matched) {
+		int result = pattern.resume(data, offset, offset + count, matched);
+		return result < 0 ? result + offset : result;
+	}
+
 	/**
 	 * Returns true if this string begins with the given string, false
 	 * otherwise.
@@ -174,12 +391,7 @@ public class CString {
 		if (s.count > count) {
 			return false;
 		}
-		for (int i = s.offset, j = offset; i < s.offset + s.count; ++i) {
-			if (s.data[i] != data[j++]) {
-				return false;
-			}
-		}
-		return true;
+		return regionMatches(data, offset, s.data, s.offset, s.count);
 	}
 
 	/**
@@ -196,13 +408,7 @@ public class CString {
 		if (s.count > count) {
 			return false;
 		}
-		int j = offset + count - s.count;
-		for (int i = s.offset; i < s.offset + s.count; ++i) {
-			if (s.data[i] != data[j++]) {
-				return false;
-			}
-		}
-		return true;
+		return regionMatches(data, offset + count - s.count, s.data, s.offset, s.count);
 	}
 
 	/**
@@ -214,27 +420,7 @@ public class CString {
 	 * @return true if string contains substring
 	 */
 	public boolean contains(CString s) {
-		if (s == null) {
-			throw new IllegalArgumentException("Argument cannot be null.");
-		}
-		// for each character of the original string
-		for (int index = offset; index < offset + count; ++index) {
-			if (s.count > count - index + offset) {
-				return false;
-			}
-			int i, j;
-			// compare substrings
-			for (i = index, j = s.offset; j < s.offset + s.count; ++j) {
-				if (data[i++] != s.data[j]) {
-					break;
-				}
-			}
-			// contains substring
-			if (j == s.offset + s.count) {
-				return true;
-			}
-		}
-		return false;
+		return indexOf(s) >= 0;
 	}
 
 	/**
@@ -303,15 +489,8 @@ public class CString {
 		if (s == null) {
 			throw new IllegalArgumentException("Argument cannot be null.");
 		}
-		int length = this.length() + s.length();
-		char[] concatenated = new char[length];
-		int j = 0;
-		for (int i = offset; i < offset + count; ++i) {
-			concatenated[j++] = data[i];
-		}
-		for (int i = s.offset; i < s.offset + s.count; ++i) {
-			concatenated[j++] = s.data[i];
-		}
+		char[] concatenated = Arrays.copyOfRange(data, offset, offset + count + s.count);
+		System.arraycopy(s.data, s.offset, concatenated, count, s.count);
 		return new CString(concatenated);
 	}
 
@@ -326,12 +505,15 @@ public class CString {
 	 * @return string with replaced characters
 	 */
 	public CString replaceAll(char oldChar, char newChar) {
-		char[] replaced = new char[count];
-		for (int i = offset; i < offset + count; ++i) {
-			if (data[i] == oldChar) {
+		int first = indexOf(oldChar);
+		if (first < 0 || oldChar == newChar) {
+			// nothing to replace, and the string is unmodifiable
+			return this;
+		}
+		char[] replaced = toCharArray();
+		for (int i = first; i < count; ++i) {
+			if (replaced[i] == oldChar) {
 				replaced[i] = newChar;
-			} else {
-				replaced[i] = data[i];
 			}
 		}
 		return new CString(replaced);
@@ -348,92 +530,93 @@ public class CString {
 	 * @return string with replaced substrings
 	 */
 	public CString replaceAll(CString oldStr, CString newStr) {
+		return replace(oldStr, newStr, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Creates a new CString in which at most the given number of occurrences
+	 * of old substring, from first to last, are replaced with the new
+	 * substring. An empty old substring occurs before each character and at
+	 * the end of the string. The occurrences are found in a single pass,
+	 * and the parts of the string between them are copied in bulk.
+	 * 
+	 * @param oldStr
+	 *            substring to be replaced
+	 * @param newStr
+	 *            substring replacement
+	 * @param maxReplacements
+	 *            largest number of replacements, at least 0
+	 * @return string with replaced substrings
+	 */
+	public CString replace(CString oldStr, CString newStr, int maxReplacements) {
 		if (oldStr == null || newStr == null) {
 			throw new IllegalArgumentException("Arguments cannot be null.");
 		}
-		int subNum = countSubstrings(this, oldStr);
-		char[] replaced = new char[count - subNum*oldStr.length() + subNum*newStr.length()];
-		int k = 0;
-		// for each character of the original string
-		for (int index = offset; index < offset + count; ++index) {
-			if (oldStr.count > count - index + offset) {
-				replaced[k++] = data[index];
-				continue;
-			}
-			int i, j;
-			// compare substrings
-			for (i = index, j = oldStr.offset; j < oldStr.offset + oldStr.count; ++j) {
-				if (data[i++] != oldStr.data[j]) {
-					break;
-				}
-			}
-			// contains substring
-			if (j == oldStr.offset + oldStr.count) {
-				// append substring
-				for (i = newStr.offset; i < newStr.offset + newStr.count; ++i) {
-					replaced[k++] = newStr.data[i];
-				}
-				// skip substring if string not empty
-				if (oldStr.count > 0) {
-					index += oldStr.count-1;
-				} else {
-					replaced[k++] = data[index];
-				}
-			} else {
-				// append that character
-				replaced[k++] = data[index];
-			}
+		if (maxReplacements < 0) {
+			throw new IllegalArgumentException("Number of replacements cannot be negative.");
 		}
-
-		// append one more time if replacing empty string
-		if (oldStr.count == 0) {
-			for (int i = newStr.offset; i < newStr.offset + newStr.count; ++i) {
-				replaced[k++] = newStr.data[i];
-			}
+		int[] positions = compile(oldStr).searchAll(data, offset, offset + count, maxReplacements);
+		long length = count + (long) positions.length * (newStr.count - oldStr.count);
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Resulting string is too long.");
 		}
-
+		char[] replaced = new char[(int) length];
+		int read = offset;
+		int write = 0;
+		for (int position : positions) {
+			// copy the part before the occurrence, then the replacement
+			System.arraycopy(data, read, replaced, write, position - read);
+			write += position - read;
+			System.arraycopy(newStr.data, newStr.offset, replaced, write, newStr.count);
+			write += newStr.count;
+			read = position + oldStr.count;
+		}
+		System.arraycopy(data, read, replaced, write, offset + count - read);
 		return new CString(replaced);
 	}
 
 	/**
-	 * Counts the number of times the substring appears in the original string.
+	 * Checks if the given number of characters of the first array starting
+	 * at the first index are equal to the characters of the second array
+	 * starting at the second index.
 	 * 
-	 * @param s
-	 *            original string
-	 * @param sub
-	 *            substring
-	 * @return number of substring appearances in original string
-	 */
-	private static int countSubstrings(CString s, CString sub) {
-		int counter = 0;
-		// for each character of the original string
-		for (int index = s.offset; index < s.offset + s.count; ++index) {
-			if (sub.count > s.count - index + s.offset) {
-				break;
-			}
-			int i, j;
-			// compare substrings
-			for (i = index, j = sub.offset; j < sub.offset + sub.count; ++j) {
-				if (s.data[i++] != sub.data[j]) {
-					break;
-				}
-			}
-			// contains substring
-			if (j == sub.offset + sub.count) {
-				++counter;
-				// skip substring if string not empty
-				if (sub.count > 0) {
-					index += sub.count-1;
-				}
+	 * @param a
+	 *            first array
+	 * @param aFrom
+	 *            starting index in the first array
+	 * @param b
+	 *            second array
+	 * @param bFrom
+	 *            starting index in the second array
+	 * @param length
+	 *            number of compared characters
+	 * @return true if the ranges are equal
+	 */
+	private static boolean regionMatches(char[] a, int aFrom, char[] b, int bFrom, int length) {
+		if (a == b && aFrom == bFrom) {
+			return true;
+		}
+		for (int i = 0; i < length; ++i) {
+			if (a[aFrom + i] != b[bFrom + i]) {
+				return false;
 			}
 		}
+		return true;
+	}
 
-		// contains empty string at end 
-		if (sub.count == 0) {
-			++counter;
+	/**
+	 * Compiles the given string into a pattern used by a single search,
+	 * without copying its characters.
+	 * 
+	 * @param s
+	 *            string being searched for
+	 * @return pattern of the string
+	 */
+	static CStringPattern compile(CString s) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
 		}
-
-		return counter;
+		return new CStringPattern(s.data, s.offset, s.count);
 	}
 
 }
@@ -0,0 +1,179 @@
+package hr.fer.zemris.java.cstr;
+
+import java.util.Arrays;
+
+/**
+ * Builder which collects characters and parts of CString objects into
+ * a growing array, so that a string built from many pieces is copied only
+ * once per piece, instead of once per concatenation as with
+ * {@link CString#add(CString)}. The array grows by doubling, which makes
+ * appending amortized O(1) per character.
+ * <p>
+ * Building the string does not copy the collected characters: the created
+ * CString shares the array of the builder. If the builder is used again
+ * afterwards, it first moves to a copy of the array, so the built strings
+ * never change.
+ *
+ * @author labramusic
+ *
+ */
+public class CStringBuilder {
+
+	/**
+	 * Default capacity of a new builder.
+	 */
+	private final static int DEFAULT_CAPACITY = 16;
+
+	/**
+	 * Largest capacity of a builder.
+	 */
+	private final static int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Collected characters.
+	 */
+	private char[] data;
+
+	/**
+	 * Number of collected characters.
+	 */
+	private int count;
+
+	/**
+	 * True if the array is shared with a built string.
+	 */
+	private boolean shared;
+
+	/**
+	 * Default constructor which creates an empty builder.
+	 */
+	public CStringBuilder() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor which creates an empty builder with room for
+	 * the given number of characters.
+	 * 
+	 * @param capacity
+	 *            initial capacity, at least 0
+	 */
+	public CStringBuilder(int capacity) {
+		if (capacity < 0 || capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Illegal capacity.");
+		}
+		data = new char[capacity];
+	}
+
+	/**
+	 * Returns the number of collected characters.
+	 * 
+	 * @return builder length
+	 */
+	public int length() {
+		return count;
+	}
+
+	/**
+	 * Appends the given character.
+	 * 
+	 * @param c
+	 *            character
+	 * @return this builder
+	 */
+	public CStringBuilder append(char c) {
+		ensureCapacity(count + 1L);
+		data[count++] = c;
+		return this;
+	}
+
+	/**
+	 * Appends all the characters of the given string.
+	 * 
+	 * @param s
+	 *            string
+	 * @return this builder
+	 */
+	public CStringBuilder append(CString s) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		return append(s, 0, s.length());
+	}
+
+	/**
+	 * Appends the characters of the given string from the starting index
+	 * (inclusive) to the end index (exclusive), without creating the
+	 * substring first.
+	 * 
+	 * @param s
+	 *            string
+	 * @param startIndex
+	 *            starting index, cannot be less than 0
+	 * @param endIndex
+	 *            end index, cannot be less than startIndex
+	 * @return this builder
+	 */
+	public CStringBuilder append(CString s, int startIndex, int endIndex) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		if (startIndex < 0 || endIndex < startIndex || endIndex > s.length()) {
+			throw new IllegalArgumentException("Illegal slice indexes.");
+		}
+		ensureCapacity((long) count + endIndex - startIndex);
+		s.getChars(startIndex, endIndex, data, count);
+		count += endIndex - startIndex;
+		return this;
+	}
+
+	/**
+	 * Creates a CString with the collected characters. The string shares
+	 * the array of the builder, so no characters are copied.
+	 * 
+	 * @return string with the collected characters
+	 */
+	public CString build() {
+		shared = true;
+		return new CString(data, 0, count);
+	}
+
+	/**
+	 * Removes all the collected characters.
+	 */
+	public void clear() {
+		if (shared) {
+			data = new char[data.length];
+			shared = false;
+		}
+		count = 0;
+	}
+
+	@Override
+	public String toString() {
+		return new String(data, 0, count);
+	}
+
+	/**
+	 * Makes sure the array has room for the given number of characters and
+	 * is not shared with a built string, growing it at least twice if needed.
+	 * 
+	 * @param capacity
+	 *            required number of characters
+	 */
+	private void ensureCapacity(long capacity) {
+		if (capacity > MAX_CAPACITY) {
+			throw new IllegalArgumentException("Resulting string is too long.");
+		}
+		if (capacity <= data.length && !shared) {
+			return;
+		}
+		int length = data.length;
+		if (capacity > length) {
+			length = (int) Math.min(Math.max(2L * length + 2, capacity), MAX_CAPACITY);
+		}
+		data = Arrays.copyOf(data, length);
+		shared = false;
+	}
+
+}
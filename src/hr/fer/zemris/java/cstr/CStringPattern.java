@@ -0,0 +1,295 @@
+package hr.fer.zemris.java.cstr;
+
+/**
+ * Precompiled substring which can be searched for in any number of CString
+ * objects in linear time. The search uses the Knuth-Morris-Pratt algorithm:
+ * the pattern remembers, for each of its prefixes, the longest proper prefix
+ * which is also its suffix, so after a mismatch the search continues without
+ * ever going back in the searched string. While no part of the pattern is
+ * matched, the search simply skips to the next occurrence of the first
+ * character of the pattern. The same is done in reverse for searching
+ * backwards.
+ * <p>
+ * Compiling takes time proportional to the pattern length, so a pattern
+ * searched for repeatedly should be compiled once and passed to the search
+ * methods of {@link CString} which accept a pattern. The table used for
+ * searching backwards is built only when the pattern is first searched for
+ * backwards.
+ *
+ * @author labramusic
+ *
+ */
+public class CStringPattern {
+
+	/**
+	 * Array containing the characters of the pattern.
+	 */
+	private char[] chars;
+
+	/**
+	 * Index of the first character of the pattern in the array.
+	 */
+	private int start;
+
+	/**
+	 * Number of characters of the pattern.
+	 */
+	private int length;
+
+	/**
+	 * Length of the longest proper prefix of the first i + 1 characters
+	 * which is also their suffix, for each i.
+	 */
+	private int[] prefixes;
+
+	/**
+	 * Length of the longest proper suffix of the last i + 1 characters
+	 * which is also their prefix, for each i, or null if it is not built yet.
+	 */
+	private volatile int[] suffixes;
+
+	/**
+	 * Constructor which compiles the given string into a pattern.
+	 *
+	 * @param s
+	 *            string to be searched for
+	 */
+	public CStringPattern(CString s) {
+		if (s == null) {
+			throw new IllegalArgumentException("Argument cannot be null.");
+		}
+		chars = s.toCharArray();
+		length = chars.length;
+		prefixes = borders(false);
+	}
+
+	/**
+	 * Constructor which compiles the given characters into a pattern without
+	 * copying them, for a pattern used by a single search. The characters
+	 * must not change while the pattern is used.
+	 *
+	 * @param chars
+	 *            array containing the characters
+	 * @param start
+	 *            index of the first character
+	 * @param length
+	 *            number of characters
+	 */
+	CStringPattern(char[] chars, int start, int length) {
+		this.chars = chars;
+		this.start = start;
+		this.length = length;
+		prefixes = borders(false);
+	}
+
+	/**
+	 * Returns the length of the pattern.
+	 *
+	 * @return pattern length
+	 */
+	public int length() {
+		return length;
+	}
+
+	@Override
+	public String toString() {
+		return new String(chars, start, length);
+	}
+
+	/**
+	 * Returns the position of the first occurrence of the pattern which
+	 * starts at position from or later and ends at position to or earlier,
+	 * or -1 if there is none.
+	 *
+	 * @param text
+	 *            searched characters
+	 * @param from
+	 *            first position the occurrence can start at
+	 * @param to
+	 *            position after the last one the occurrence can cover
+	 * @return position of the first occurrence, or -1
+	 */
+	int search(char[] text, int from, int to) {
+		int m = length;
+		if (m == 0) {
+			return from <= to ? from : -1;
+		}
+		char first = chars[start];
+		int matched = 0;
+		for (int i = from; i < to; ++i) {
+			char c = text[i];
+			if (matched == 0) {
+				// nothing matched, skip to the next candidate start
+				while (c != first) {
+					if (++i > to - m) {
+						return -1;
+					}
+					c = text[i];
+				}
+			}
+			while (matched > 0 && chars[start + matched] != c) {
+				matched = prefixes[matched - 1];
+			}
+			if (chars[start + matched] == c) {
+				++matched;
+			}
+			if (matched == m) {
+				return i - m + 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the position of the last occurrence of the pattern which
+	 * starts at position from or later and ends at position to or earlier,
+	 * or -1 if there is none.
+	 *
+	 * @param text
+	 *            searched characters
+	 * @param from
+	 *            first position the occurrence can start at
+	 * @param to
+	 *            position after the last one the occurrence can cover
+	 * @return position of the last occurrence, or -1
+	 */
+	int searchBackward(char[] text, int from, int to) {
+		int m = length;
+		if (m == 0) {
+			return from <= to ? to : -1;
+		}
+		int[] suffixes = this.suffixes;
+		if (suffixes == null) {
+			suffixes = borders(true);
+			this.suffixes = suffixes;
+		}
+		int end = start + m - 1;
+		char last = chars[end];
+		int matched = 0;
+		for (int i = to - 1; i >= from; --i) {
+			char c = text[i];
+			if (matched == 0) {
+				// nothing matched, skip to the previous candidate end
+				while (c != last) {
+					if (--i < from + m - 1) {
+						return -1;
+					}
+					c = text[i];
+				}
+			}
+			while (matched > 0 && chars[end - matched] != c) {
+				matched = suffixes[matched - 1];
+			}
+			if (chars[end - matched] == c) {
+				++matched;
+			}
+			if (matched == m) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Continues a search whose previous part ended with the given number of
+	 * pattern characters matched, through the characters from position from
+	 * (inclusive) to position to (exclusive). This allows searching text
+	 * which is split into several arrays. The pattern must not be empty.
+	 *
+	 * @param text
+	 *            searched characters
+	 * @param from
+	 *            position of the first character to search through
+	 * @param to
+	 *            position after the last character to search through
+	 * @param matched
+	 *            number of pattern characters matched before position from
+	 * @return number of pattern characters matched at position to, or, if
+	 *         the pattern was found, -1 minus the position of its last
+	 *         character
+	 */
+	int resume(char[] text, int from, int to, int matched) {
+		int m = length;
+		for (int i = from; i < to; ++i) {
+			char c = text[i];
+			while (matched > 0 && chars[start + matched] != c) {
+				matched = prefixes[matched - 1];
+			}
+			if (chars[start + matched] == c) {
+				++matched;
+			}
+			if (matched == m) {
+				return -1 - i;
+			}
+		}
+		return matched;
+	}
+
+	/**
+	 * Returns the positions of the occurrences of the pattern which start at
+	 * position from or later and end at position to or earlier, from left to
+	 * right. Occurrences don't overlap, since the search for the next
+	 * occurrence starts after the previous one. An empty pattern occurs at
+	 * every position, including the position to.
+	 *
+	 * @param text
+	 *            searched characters
+	 * @param from
+	 *            first position an occurrence can start at
+	 * @param to
+	 *            position after the last one an occurrence can cover
+	 * @param limit
+	 *            largest number of occurrences to find
+	 * @return positions of the occurrences
+	 */
+	int[] searchAll(char[] text, int from, int to, int limit) {
+		int step = Math.max(length, 1);
+		int[] positions = new int[Math.min(limit, Math.min((to - from) / step + 1, 16))];
+		int found = 0;
+		for (int i = search(text, from, to); i >= 0 && found < limit; i = search(text, i + step, to)) {
+			if (found == positions.length) {
+				int[] grown = new int[(int) Math.min(2L * found, Integer.MAX_VALUE - 8)];
+				System.arraycopy(positions, 0, grown, 0, found);
+				positions = grown;
+			}
+			positions[found++] = i;
+		}
+		if (found == positions.length) {
+			return positions;
+		}
+		int[] trimmed = new int[found];
+		System.arraycopy(positions, 0, trimmed, 0, found);
+		return trimmed;
+	}
+
+	/**
+	 * Computes the border table of the pattern, where a border is a proper
+	 * prefix which is also a suffix. When reversed, the characters are read
+	 * from the last to the first.
+	 *
+	 * @param reversed
+	 *            true if the characters are read in reverse
+	 * @return length of the longest border of the first i + 1 characters read,
+	 *         for each i
+	 */
+	private int[] borders(boolean reversed) {
+		int m = length;
+		// position of the first character read, and the direction of reading
+		int base = reversed ? start + m - 1 : start;
+		int step = reversed ? -1 : 1;
+		int[] borders = new int[m];
+		int border = 0;
+		for (int i = 1; i < m; ++i) {
+			char c = chars[base + step * i];
+			while (border > 0 && c != chars[base + step * border]) {
+				border = borders[border - 1];
+			}
+			if (c == chars[base + step * border]) {
+				++border;
+			}
+			borders[i] = border;
+		}
+		return borders;
+	}
+
+}
@@ -0,0 +1,267 @@
+package hr.fer.zemris.java.graphics;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.shapes.Circle;
+import hr.fer.zemris.java.graphics.shapes.Ellipse;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.Rectangle;
+import hr.fer.zemris.java.graphics.shapes.Square;
+
+/**
+ * Reads shape commands in the format expected by the {@link Demo} program and
+ * draws each shape on the raster as soon as its command is read. The first
+ * line contains the number of commands, and each of the following lines
+ * contains one command: RECTANGLE x y width height, SQUARE x y size, ELLIPSE
+ * x y horizontalRadius verticalRadius, CIRCLE x y radius or FLIP. Command
+ * names are case insensitive and tokens are separated by spaces or tabs.
+ * <p>
+ * The input is tokenized directly from an internal character buffer, so no
+ * strings are created while reading and the memory used does not depend on
+ * the length of the input. Malformed input results in an
+ * IllegalArgumentException.
+ *
+ * @author labramusic
+ *
+ */
+public class ShapeCommandReader implements Closeable {
+
+	/**
+	 * Size of the input buffer.
+	 */
+	private final static int BUFFER_SIZE = 8192;
+
+	/**
+	 * Rectangle command name.
+	 */
+	private final static char[] RECTANGLE = "RECTANGLE".toCharArray();
+
+	/**
+	 * Square command name.
+	 */
+	private final static char[] SQUARE = "SQUARE".toCharArray();
+
+	/**
+	 * Ellipse command name.
+	 */
+	private final static char[] ELLIPSE = "ELLIPSE".toCharArray();
+
+	/**
+	 * Circle command name.
+	 */
+	private final static char[] CIRCLE = "CIRCLE".toCharArray();
+
+	/**
+	 * Flip command name.
+	 */
+	private final static char[] FLIP = "FLIP".toCharArray();
+
+	/**
+	 * Source of the commands.
+	 */
+	private Reader reader;
+
+	/**
+	 * Input buffer.
+	 */
+	private char[] buffer;
+
+	/**
+	 * Position of the next character in the buffer.
+	 */
+	private int position;
+
+	/**
+	 * Number of valid characters in the buffer.
+	 */
+	private int limit;
+
+	/**
+	 * Constructor which accepts the source of the commands.
+	 * @param reader source of the commands
+	 */
+	public ShapeCommandReader(Reader reader) {
+		if (reader == null) {
+			throw new IllegalArgumentException("Reader cannot be null.");
+		}
+		this.reader = reader;
+		buffer = new char[BUFFER_SIZE];
+	}
+
+	/**
+	 * Reads the number of commands followed by the commands themselves, and
+	 * draws each shape on the raster as soon as it is read. Flip mode of the
+	 * raster is disabled at the start and each FLIP command enables it.
+	 * @param raster raster to draw the shapes on
+	 * @return number of commands read
+	 * @throws IOException if reading the input fails
+	 */
+	public int render(BWRaster raster) throws IOException {
+		int commands = readInt();
+		endLine();
+		if (commands < 0) {
+			throw new IllegalArgumentException("Number of commands cannot be negative.");
+		}
+		raster.disableFlipMode();
+		for (int i = 0; i < commands; ++i) {
+			GeometricShape shape = readCommand();
+			if (shape == null) {
+				raster.enableFlipMode();
+			} else {
+				shape.draw(raster);
+			}
+		}
+		return commands;
+	}
+
+	/**
+	 * Reads a single command line and returns the shape it describes,
+	 * or null for the FLIP command.
+	 * @return shape described by the command, or null for FLIP
+	 * @throws IOException if reading the input fails
+	 */
+	private GeometricShape readCommand() throws IOException {
+		skipBlanks();
+		if (!fill()) {
+			throw new IllegalArgumentException("Unexpected end of input.");
+		}
+		GeometricShape shape;
+		if (matchName(RECTANGLE)) {
+			shape = new Rectangle(readInt(), readInt(), readInt(), readInt());
+		} else if (matchName(SQUARE)) {
+			shape = new Square(readInt(), readInt(), readInt());
+		} else if (matchName(ELLIPSE)) {
+			shape = new Ellipse(readInt(), readInt(), readInt(), readInt());
+		} else if (matchName(CIRCLE)) {
+			shape = new Circle(readInt(), readInt(), readInt());
+		} else if (matchName(FLIP)) {
+			shape = null;
+		} else {
+			throw new IllegalArgumentException("Unknown command.");
+		}
+		endLine();
+		return shape;
+	}
+
+	/**
+	 * Consumes the command name at the current position if it is equal to
+	 * the given name, ignoring case. A prefix of the name which is not
+	 * followed by the rest of it is never consumed, since all command names
+	 * start with different letters.
+	 * @param name command name in upper case
+	 * @return true if the name was consumed
+	 * @throws IOException if reading the input fails
+	 */
+	private boolean matchName(char[] name) throws IOException {
+		if (!fill() || Character.toUpperCase(buffer[position]) != name[0]) {
+			return false;
+		}
+		++position;
+		for (int i = 1; i < name.length; ++i) {
+			if (!fill() || Character.toUpperCase(buffer[position]) != name[i]) {
+				throw new IllegalArgumentException("Unknown command.");
+			}
+			++position;
+		}
+		if (fill() && !isSeparator(buffer[position])) {
+			throw new IllegalArgumentException("Unknown command.");
+		}
+		return true;
+	}
+
+	/**
+	 * Reads an optionally signed decimal integer on the current line.
+	 * @return integer value
+	 * @throws IOException if reading the input fails
+	 */
+	private int readInt() throws IOException {
+		skipBlanks();
+		if (!fill()) {
+			throw new IllegalArgumentException("Unexpected end of input.");
+		}
+		boolean negative = false;
+		if (buffer[position] == '-' || buffer[position] == '+') {
+			negative = buffer[position] == '-';
+			++position;
+		}
+		long value = 0;
+		int digits = 0;
+		while (fill() && !isSeparator(buffer[position])) {
+			char c = buffer[position++];
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException("Invalid number.");
+			}
+			value = value * 10 + (c - '0');
+			if (value > (long) Integer.MAX_VALUE + 1) {
+				throw new IllegalArgumentException("Number is too large.");
+			}
+			++digits;
+		}
+		if (digits == 0) {
+			throw new IllegalArgumentException("Missing number.");
+		}
+		value = negative ? -value : value;
+		if (value > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Number is too large.");
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Skips the rest of the current line, including the line terminator.
+	 * @throws IOException if reading the input fails
+	 */
+	private void endLine() throws IOException {
+		while (fill()) {
+			if (buffer[position++] == '\n') {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Skips spaces and tabs on the current line.
+	 * @throws IOException if reading the input fails
+	 */
+	private void skipBlanks() throws IOException {
+		while (fill() && (buffer[position] == ' ' || buffer[position] == '\t')) {
+			++position;
+		}
+	}
+
+	/**
+	 * Checks if the given character ends a token.
+	 * @param c character
+	 * @return true if character is a space, a tab or a line terminator
+	 */
+	private static boolean isSeparator(char c) {
+		return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+	}
+
+	/**
+	 * Makes sure there is at least one unread character in the buffer,
+	 * reading more input if needed.
+	 * @return true if there is an unread character, false at end of input
+	 * @throws IOException if reading the input fails
+	 */
+	private boolean fill() throws IOException {
+		while (position == limit) {
+			limit = reader.read(buffer, 0, buffer.length);
+			position = 0;
+			if (limit < 0) {
+				limit = 0;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+}
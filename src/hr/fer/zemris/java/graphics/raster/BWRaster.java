@@ -57,6 +57,74 @@ public interface BWRaster {
 	 */
 	void turnOff(int x, int y);
 
+	/**
+	 * Turns on all the pixels of the row y in the span from x0 (inclusive)
+	 * to x1 (exclusive). If flip mode is enabled, this method flips each pixel
+	 * of the span instead, just like {@link #turnOn(int, int)} does. Throws
+	 * IllegalArgumentException if the span is not inside of raster boundaries.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param x0
+	 *            starting position of the span at x axis, inclusive
+	 * @param x1
+	 *            ending position of the span at x axis, exclusive
+	 */
+	void fillSpan(int y, int x0, int x1);
+
+	/**
+	 * Turns off all the pixels of the row y in the span from x0 (inclusive)
+	 * to x1 (exclusive). Throws IllegalArgumentException if the span is not
+	 * inside of raster boundaries.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param x0
+	 *            starting position of the span at x axis, inclusive
+	 * @param x1
+	 *            ending position of the span at x axis, exclusive
+	 */
+	void clearSpan(int y, int x0, int x1);
+
+	/**
+	 * Flips all the pixels of the row y in the span from x0 (inclusive) to x1
+	 * (exclusive), regardless of flip mode. Throws IllegalArgumentException if
+	 * the span is not inside of raster boundaries.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param x0
+	 *            starting position of the span at x axis, inclusive
+	 * @param x1
+	 *            ending position of the span at x axis, exclusive
+	 */
+	void flipSpan(int y, int x0, int x1);
+
+	/**
+	 * Turns on all the pixels of the rectangle with the given top left corner,
+	 * width and height, one row span at a time. If flip mode is enabled, the
+	 * pixels are flipped instead. Throws IllegalArgumentException if the
+	 * rectangle is not inside of raster boundaries.
+	 * 
+	 * @param x
+	 *            top left corner position at x axis
+	 * @param y
+	 *            top left corner position at y axis
+	 * @param width
+	 *            rectangle width, at least 0
+	 * @param height
+	 *            rectangle height, at least 0
+	 */
+	default void fillRect(int x, int y, int width, int height) {
+		if (width < 0 || height < 0 || x < 0 || x > getWidth() - width
+				|| y < 0 || y > getHeight() - height) {
+			throw new IllegalArgumentException("Given rectangle is out of bounds.");
+		}
+		for (int yMax = y + height; y < yMax; ++y) {
+			fillSpan(y, x, x + width);
+		}
+	}
+
 	/**
 	 * Enables the flip mode, which is initially disabled.
 	 */
@@ -76,4 +144,77 @@ public interface BWRaster {
 	 */
 	boolean isTurnedOn(int x, int y);
 
+	/**
+	 * Returns the number of pixels in the raster which are turned on.
+	 * 
+	 * @return number of pixels turned on
+	 */
+	default long cardinality() {
+		return cardinality(BoundingBox.of(this));
+	}
+
+	/**
+	 * Returns the number of pixels inside of the given region which are
+	 * turned on. Parts of the region outside of the raster are ignored.
+	 * Throws IllegalArgumentException if the region is null.
+	 * 
+	 * @param region
+	 *            region of the raster
+	 * @return number of pixels turned on inside of the region
+	 */
+	default long cardinality(BoundingBox region) {
+		if (region == null) {
+			throw new IllegalArgumentException("Region cannot be null.");
+		}
+		BoundingBox clip = region.intersection(BoundingBox.of(this));
+		if (clip == null) {
+			return 0;
+		}
+		long count = 0;
+		for (int y = clip.getMinY(); y <= clip.getMaxY(); ++y) {
+			for (int x = clip.getMinX(); x <= clip.getMaxX(); ++x) {
+				if (isTurnedOn(x, y)) {
+					++count;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of pixels turned on in each row of the raster.
+	 * 
+	 * @return array with the number of pixels turned on for each row
+	 */
+	default int[] rowCounts() {
+		int width = getWidth();
+		int[] counts = new int[getHeight()];
+		for (int y = 0; y < counts.length; ++y) {
+			for (int x = 0; x < width; ++x) {
+				if (isTurnedOn(x, y)) {
+					++counts[y];
+				}
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Returns the number of pixels turned on in each column of the raster.
+	 * 
+	 * @return array with the number of pixels turned on for each column
+	 */
+	default int[] columnCounts() {
+		int height = getHeight();
+		int[] counts = new int[getWidth()];
+		for (int y = 0; y < height; ++y) {
+			for (int x = 0; x < counts.length; ++x) {
+				if (isTurnedOn(x, y)) {
+					++counts[x];
+				}
+			}
+		}
+		return counts;
+	}
+
 }
@@ -0,0 +1,338 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import java.util.Arrays;
+
+/**
+ * Implementation of BWRaster which keeps all of its data in memory, packing
+ * 64 pixels into each long word of a single flat array. Each raster row starts
+ * at a new word, and the pixel at position x is stored in bit (x % 64) of the
+ * word (x / 64) of its row. Clearing the raster only resets the words
+ * modified since it was last cleared.
+ * <p>
+ * The raster can optionally keep the number of pixels turned on in each row
+ * up to date as pixels change, so that counting them does not need to read
+ * the whole raster.
+ *
+ * @author labramusic
+ *
+ */
+public class BWRasterBits implements BitPackedRaster, DirtyTrackingRaster {
+
+	/**
+	 * Minimum raster width.
+	 */
+	private final static int MIN_WIDTH = 1;
+
+	/**
+	 * Minimum raster height.
+	 */
+	private final static int MIN_HEIGHT = 1;
+
+	/**
+	 * Number of bits used for addressing a bit in a word.
+	 */
+	private final static int ADDRESS_BITS = 6;
+
+	/**
+	 * Raster width.
+	 */
+	private int width;
+
+	/**
+	 * Raster height.
+	 */
+	private int height;
+
+	/**
+	 * Number of words used for a single raster row.
+	 */
+	private int wordsPerRow;
+
+	/**
+	 * Pixel data, row by row.
+	 */
+	private long[] words;
+
+	/**
+	 * Flip mode.
+	 */
+	private boolean flipMode;
+
+	/**
+	 * Pixels modified since the raster was last cleared.
+	 */
+	private DirtyRows touched;
+
+	/**
+	 * Pixels modified since the last snapshot.
+	 */
+	private DirtyRows changed;
+
+	/**
+	 * Number of pixels turned on in each row, or null if the counts
+	 * are not maintained.
+	 */
+	private int[] pixelCounts;
+
+	/**
+	 * Writer which applies span masks to the words of the raster.
+	 */
+	private SpanOperation.MaskWriter maskWriter = this::applyMask;
+
+	/**
+	 * Constructor which accepts raster width and height.
+	 * Both must be at least 1.
+	 * @param width raster width
+	 * @param height raster height
+	 */
+	public BWRasterBits(int width, int height) {
+		this(width, height, false);
+	}
+
+	/**
+	 * Constructor which accepts raster width and height, both at least 1,
+	 * and whether the number of pixels turned on in each row should be
+	 * maintained as pixels change.
+	 * @param width raster width
+	 * @param height raster height
+	 * @param countPixels true if the pixel counts should be maintained
+	 */
+	public BWRasterBits(int width, int height, boolean countPixels) {
+		if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+			throw new IllegalArgumentException("Raster dimensions must be at least 1 pixel wide.");
+		}
+		this.width = width;
+		this.height = height;
+		wordsPerRow = (width + 63) >>> ADDRESS_BITS;
+		long size = (long) wordsPerRow * height;
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Raster dimensions are too large.");
+		}
+		words = new long[(int) size];
+		flipMode = false;
+		touched = new DirtyRows(height);
+		changed = new DirtyRows(height);
+		if (countPixels) {
+			pixelCounts = new int[height];
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public void clear() {
+		for (int y = 0; y < height; ++y) {
+			if (touched.isDirty(y)) {
+				Arrays.fill(words, wordIndex(touched.getMinX(y), y), wordIndex(touched.getMaxX(y), y) + 1, 0L);
+				if (pixelCounts != null) {
+					pixelCounts[y] = 0;
+				}
+			}
+		}
+		changed.markAll(touched);
+		touched.reset();
+	}
+
+	@Override
+	public void turnOn(int x, int y) {
+		checkBounds(x, y);
+		markDirty(y, x, x + 1);
+		applyMask(y, x >>> ADDRESS_BITS, 1L << x, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void turnOff(int x, int y) {
+		checkBounds(x, y);
+		markDirty(y, x, x + 1);
+		applyMask(y, x >>> ADDRESS_BITS, 1L << x, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void fillSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void clearSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void flipSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.FLIP);
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	@Override
+	public long getWord(int y, int index) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		return words[y * wordsPerRow + index];
+	}
+
+	@Override
+	public BoundingBox getDirtyRegion() {
+		return changed.toBoundingBox();
+	}
+
+	@Override
+	public void markClean() {
+		changed.reset();
+	}
+
+	@Override
+	public void setWord(int y, int index, long word) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		int x0 = index << ADDRESS_BITS;
+		int x1 = Math.min(x0 + 64, width);
+		markDirty(y, x0, x1);
+		store(y, y * wordsPerRow + index, word & (-1L >>> -x1));
+	}
+
+	@Override
+	public void enableFlipMode() {
+		flipMode = true;
+	}
+
+	@Override
+	public void disableFlipMode() {
+		flipMode = false;
+	}
+
+	@Override
+	public boolean isTurnedOn(int x, int y) {
+		checkBounds(x, y);
+		return (words[wordIndex(x, y)] & (1L << x)) != 0;
+	}
+
+	/**
+	 * Returns the maintained count if pixel counts are maintained.
+	 */
+	@Override
+	public long cardinality() {
+		if (pixelCounts == null) {
+			return BitPackedRaster.super.cardinality();
+		}
+		long count = 0;
+		for (int rowCount : pixelCounts) {
+			count += rowCount;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns a copy of the maintained counts if pixel counts are maintained.
+	 */
+	@Override
+	public int[] rowCounts() {
+		if (pixelCounts == null) {
+			return BitPackedRaster.super.rowCounts();
+		}
+		return pixelCounts.clone();
+	}
+
+	/**
+	 * Checks if the number of pixels turned on in each row is maintained
+	 * as pixels change.
+	 * @return true if pixel counts are maintained
+	 */
+	public boolean isCountingPixels() {
+		return pixelCounts != null;
+	}
+
+	/**
+	 * Returns the index of the word which contains the pixel at the given
+	 * location. Shifting a long by x uses only the lowest 6 bits of x, so the
+	 * bit inside of the word is simply 1L &lt;&lt; x.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 * @return index of the word containing the pixel
+	 */
+	private int wordIndex(int x, int y) {
+		return y * wordsPerRow + (x >>> ADDRESS_BITS);
+	}
+
+	/**
+	 * Marks the pixels of the row y in the span from x0 (inclusive) to x1
+	 * (exclusive) as modified.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	private void markDirty(int y, int x0, int x1) {
+		touched.mark(y, x0, x1);
+		changed.mark(y, x0, x1);
+	}
+
+	/**
+	 * Applies the given operation to the pixels of the row y in the span from
+	 * x0 (inclusive) to x1 (exclusive), a whole word at a time.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param operation operation
+	 */
+	private void applySpan(int y, int x0, int x1, SpanOperation operation) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		if (x0 == x1) {
+			return;
+		}
+		markDirty(y, x0, x1);
+		operation.applySpan(y, x0, x1, maskWriter);
+	}
+
+	/**
+	 * Applies the given operation to the bits of the word which are set in
+	 * the mask.
+	 * @param y position of the row containing the word
+	 * @param index index of the word in the row
+	 * @param mask bits to be changed
+	 * @param operation operation
+	 */
+	private void applyMask(int y, int index, long mask, SpanOperation operation) {
+		int i = y * wordsPerRow + index;
+		store(y, i, operation.apply(words[i], mask));
+	}
+
+	/**
+	 * Stores the word at the given index, updating the pixel count of its
+	 * row if pixel counts are maintained.
+	 * @param y position of the row containing the word
+	 * @param index word index
+	 * @param word new word
+	 */
+	private void store(int y, int index, long word) {
+		if (pixelCounts != null) {
+			pixelCounts[y] += Long.bitCount(word) - Long.bitCount(words[index]);
+		}
+		words[index] = word;
+	}
+
+	/**
+	 * Throws IllegalArgumentException if given point is outside of raster
+	 * boundaries.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 */
+	private void checkBounds(int x, int y) {
+		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
+			throw new IllegalArgumentException("Given coordinates are out of bounds.");
+		}
+	}
+
+}
@@ -0,0 +1,372 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Implementation of BWRaster which can be drawn on by many threads at once.
+ * Pixels are packed 64 to a long word in the same layout as in
+ * {@link BWRasterBits}, and each word is updated atomically with a compare
+ * and set loop, so concurrent changes of pixels sharing a word are never lost
+ * and flipping a pixel is an atomic exclusive or.
+ * <p>
+ * Instead of relying on the raster-wide flip mode, which is shared by all
+ * threads, each operation can be given its own flip mode, either directly or
+ * through a view returned by {@link #withFlipMode(boolean)}. Words changed
+ * through {@link #updateWord(int, int, long, long)}, which is used by
+ * {@link RasterOps}, are updated atomically as well, so compositing into this
+ * raster does not lose pixels drawn concurrently. Setting whole words and
+ * clearing the raster are not atomic with respect to concurrent drawing.
+ *
+ * @author labramusic
+ *
+ */
+public class BWRasterConcurrent implements BitPackedRaster {
+
+	/**
+	 * Minimum raster width.
+	 */
+	private final static int MIN_WIDTH = 1;
+
+	/**
+	 * Minimum raster height.
+	 */
+	private final static int MIN_HEIGHT = 1;
+
+	/**
+	 * Number of bits used for addressing a bit in a word.
+	 */
+	private final static int ADDRESS_BITS = 6;
+
+	/**
+	 * Raster width.
+	 */
+	private int width;
+
+	/**
+	 * Raster height.
+	 */
+	private int height;
+
+	/**
+	 * Number of words used for a single raster row.
+	 */
+	private int wordsPerRow;
+
+	/**
+	 * Pixel data, row by row.
+	 */
+	private AtomicLongArray words;
+
+	/**
+	 * Raster-wide flip mode, used by operations without their own flip mode.
+	 */
+	private volatile boolean flipMode;
+
+	/**
+	 * Writer which atomically applies span masks to the words of the raster.
+	 */
+	private SpanOperation.MaskWriter maskWriter = this::applyMask;
+
+	/**
+	 * Constructor which accepts raster width and height.
+	 * Both must be at least 1.
+	 * @param width raster width
+	 * @param height raster height
+	 */
+	public BWRasterConcurrent(int width, int height) {
+		if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+			throw new IllegalArgumentException("Raster dimensions must be at least 1 pixel wide.");
+		}
+		this.width = width;
+		this.height = height;
+		wordsPerRow = (width + 63) >>> ADDRESS_BITS;
+		long size = (long) wordsPerRow * height;
+		if (size > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Raster dimensions are too large.");
+		}
+		words = new AtomicLongArray((int) size);
+		flipMode = false;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0, length = words.length(); i < length; ++i) {
+			words.set(i, 0L);
+		}
+	}
+
+	@Override
+	public void turnOn(int x, int y) {
+		turnOn(x, y, flipMode);
+	}
+
+	/**
+	 * Turns pixel on at the specified location, or flips it if the given
+	 * flip mode is enabled, regardless of the raster-wide flip mode. Throws
+	 * IllegalArgumentException if given point is outside of raster boundaries.
+	 * @param x position of pixel at x axis
+	 * @param y position of pixel at y axis
+	 * @param flip true if the pixel should be flipped
+	 */
+	public void turnOn(int x, int y, boolean flip) {
+		checkBounds(x, y);
+		applyMask(y, x >>> ADDRESS_BITS, 1L << x, SpanOperation.fill(flip));
+	}
+
+	@Override
+	public void turnOff(int x, int y) {
+		checkBounds(x, y);
+		applyMask(y, x >>> ADDRESS_BITS, 1L << x, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void fillSpan(int y, int x0, int x1) {
+		fillSpan(y, x0, x1, flipMode);
+	}
+
+	/**
+	 * Turns on all the pixels of the row y in the span from x0 (inclusive) to
+	 * x1 (exclusive), or flips them if the given flip mode is enabled,
+	 * regardless of the raster-wide flip mode. Throws IllegalArgumentException
+	 * if the span is not inside of raster boundaries.
+	 * @param y position of the row at y axis
+	 * @param x0 starting position of the span at x axis, inclusive
+	 * @param x1 ending position of the span at x axis, exclusive
+	 * @param flip true if the pixels should be flipped
+	 */
+	public void fillSpan(int y, int x0, int x1, boolean flip) {
+		applySpan(y, x0, x1, SpanOperation.fill(flip));
+	}
+
+	@Override
+	public void clearSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void flipSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.FLIP);
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	@Override
+	public long getWord(int y, int index) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		return words.get(y * wordsPerRow + index);
+	}
+
+	@Override
+	public void setWord(int y, int index, long word) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		int x1 = Math.min((index << ADDRESS_BITS) + 64, width);
+		words.set(y * wordsPerRow + index, word & (-1L >>> -x1));
+	}
+
+	/**
+	 * Updates the word atomically with a compare and set loop.
+	 */
+	@Override
+	public void updateWord(int y, int index, long and, long xor) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		int x1 = Math.min((index << ADDRESS_BITS) + 64, width);
+		long valid = -1L >>> -x1;
+		int i = y * wordsPerRow + index;
+		long oldWord;
+		long newWord;
+		do {
+			oldWord = words.get(i);
+			newWord = ((oldWord & and) ^ xor) & valid;
+			if (newWord == oldWord) {
+				return;
+			}
+		} while (!words.compareAndSet(i, oldWord, newWord));
+	}
+
+	@Override
+	public void enableFlipMode() {
+		flipMode = true;
+	}
+
+	@Override
+	public void disableFlipMode() {
+		flipMode = false;
+	}
+
+	@Override
+	public boolean isTurnedOn(int x, int y) {
+		checkBounds(x, y);
+		return (words.get(wordIndex(x, y)) & (1L << x)) != 0;
+	}
+
+	/**
+	 * Returns a view of this raster with its own flip mode, initially set to
+	 * the given value. Drawing through the view changes this raster, but
+	 * enabling or disabling flip mode of the view affects only the view, so
+	 * each thread can draw shapes through its own view.
+	 * @param flip initial flip mode of the view
+	 * @return view of this raster with its own flip mode
+	 */
+	public BWRaster withFlipMode(boolean flip) {
+		return new FlipModeView(flip);
+	}
+
+	/**
+	 * Returns the index of the word which contains the pixel at the given
+	 * location.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 * @return index of the word containing the pixel
+	 */
+	private int wordIndex(int x, int y) {
+		return y * wordsPerRow + (x >>> ADDRESS_BITS);
+	}
+
+	/**
+	 * Applies the given operation to the pixels of the row y in the span from
+	 * x0 (inclusive) to x1 (exclusive), a whole word at a time.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param operation operation
+	 */
+	private void applySpan(int y, int x0, int x1, SpanOperation operation) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		if (x0 == x1) {
+			return;
+		}
+		operation.applySpan(y, x0, x1, maskWriter);
+	}
+
+	/**
+	 * Atomically applies the given operation to the bits of the word which
+	 * are set in the mask.
+	 * @param y position of the row containing the word
+	 * @param index index of the word in the row
+	 * @param mask bits to be changed
+	 * @param operation operation
+	 */
+	private void applyMask(int y, int index, long mask, SpanOperation operation) {
+		int i = y * wordsPerRow + index;
+		long oldWord;
+		long newWord;
+		do {
+			oldWord = words.get(i);
+			newWord = operation.apply(oldWord, mask);
+			if (newWord == oldWord) {
+				return;
+			}
+		} while (!words.compareAndSet(i, oldWord, newWord));
+	}
+
+	/**
+	 * Throws IllegalArgumentException if given point is outside of raster
+	 * boundaries.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 */
+	private void checkBounds(int x, int y) {
+		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
+			throw new IllegalArgumentException("Given coordinates are out of bounds.");
+		}
+	}
+
+	/**
+	 * View of the raster with its own flip mode. A view should be used
+	 * by a single thread.
+	 *
+	 * @author labramusic
+	 *
+	 */
+	private class FlipModeView implements BWRaster {
+
+		/**
+		 * Flip mode of the view.
+		 */
+		private boolean flip;
+
+		/**
+		 * Constructor which sets the initial flip mode of the view.
+		 * @param flip initial flip mode
+		 */
+		public FlipModeView(boolean flip) {
+			this.flip = flip;
+		}
+
+		@Override
+		public int getWidth() {
+			return width;
+		}
+
+		@Override
+		public int getHeight() {
+			return height;
+		}
+
+		@Override
+		public void clear() {
+			BWRasterConcurrent.this.clear();
+		}
+
+		@Override
+		public void turnOn(int x, int y) {
+			BWRasterConcurrent.this.turnOn(x, y, flip);
+		}
+
+		@Override
+		public void turnOff(int x, int y) {
+			BWRasterConcurrent.this.turnOff(x, y);
+		}
+
+		@Override
+		public void fillSpan(int y, int x0, int x1) {
+			BWRasterConcurrent.this.fillSpan(y, x0, x1, flip);
+		}
+
+		@Override
+		public void clearSpan(int y, int x0, int x1) {
+			BWRasterConcurrent.this.clearSpan(y, x0, x1);
+		}
+
+		@Override
+		public void flipSpan(int y, int x0, int x1) {
+			BWRasterConcurrent.this.flipSpan(y, x0, x1);
+		}
+
+		@Override
+		public void enableFlipMode() {
+			flip = true;
+		}
+
+		@Override
+		public void disableFlipMode() {
+			flip = false;
+		}
+
+		@Override
+		public boolean isTurnedOn(int x, int y) {
+			return BWRasterConcurrent.this.isTurnedOn(x, y);
+		}
+
+	}
+
+}
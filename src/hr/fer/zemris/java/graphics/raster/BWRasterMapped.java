@@ -0,0 +1,401 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Implementation of BWRaster which keeps its data in a memory-mapped file, so
+ * the operating system pages the pixels in and out of memory as needed and
+ * the raster can be larger than the heap. Pixels are packed 64 to a long word
+ * in the same layout as in {@link BWRasterBits}. The file starts with a
+ * header holding the raster dimensions, so it can be reopened later in order
+ * to resume or inspect the drawing. Files larger than 2GB are mapped in
+ * several segments. Clearing the raster only resets the words modified since
+ * it was last cleared, or all of them if it was reopened since.
+ *
+ * @author labramusic
+ *
+ */
+public class BWRasterMapped implements BitPackedRaster, DirtyTrackingRaster, Closeable {
+
+	/**
+	 * Minimum raster width.
+	 */
+	private final static int MIN_WIDTH = 1;
+
+	/**
+	 * Minimum raster height.
+	 */
+	private final static int MIN_HEIGHT = 1;
+
+	/**
+	 * Number of bits used for addressing a bit in a word.
+	 */
+	private final static int ADDRESS_BITS = 6;
+
+	/**
+	 * Value which identifies files created by this class.
+	 */
+	private final static int MAGIC = 0x42575246;
+
+	/**
+	 * Size of the file header in bytes, a multiple of the word size.
+	 */
+	private final static int HEADER_SIZE = 16;
+
+	/**
+	 * Number of bits used for addressing a word inside of a segment.
+	 */
+	private final static int SEGMENT_BITS = 27;
+
+	/**
+	 * Number of words in a single mapped segment.
+	 */
+	private final static long SEGMENT_WORDS = 1L << SEGMENT_BITS;
+
+	/**
+	 * Raster width.
+	 */
+	private int width;
+
+	/**
+	 * Raster height.
+	 */
+	private int height;
+
+	/**
+	 * Number of words used for a single raster row.
+	 */
+	private int wordsPerRow;
+
+	/**
+	 * File channel of the mapped file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Mapped segments of the pixel data, row by row.
+	 */
+	private MappedByteBuffer[] segments;
+
+	/**
+	 * Flip mode.
+	 */
+	private boolean flipMode;
+
+	/**
+	 * Pixels modified since the raster was last cleared.
+	 */
+	private DirtyRows touched;
+
+	/**
+	 * Pixels modified since the last snapshot.
+	 */
+	private DirtyRows changed;
+
+	/**
+	 * Writer which applies span masks to the words of the raster.
+	 */
+	private SpanOperation.MaskWriter maskWriter = this::applyMask;
+
+	/**
+	 * Constructor which maps the pixel data of an open file.
+	 * @param channel file channel
+	 * @param width raster width
+	 * @param height raster height
+	 * @throws IOException if mapping the file fails
+	 */
+	private BWRasterMapped(FileChannel channel, int width, int height) throws IOException {
+		this.channel = channel;
+		this.width = width;
+		this.height = height;
+		wordsPerRow = (width + 63) >>> ADDRESS_BITS;
+		long words = (long) wordsPerRow * height;
+		segments = new MappedByteBuffer[(int) ((words + SEGMENT_WORDS - 1) >>> SEGMENT_BITS)];
+		for (int i = 0; i < segments.length; ++i) {
+			long first = i * SEGMENT_WORDS;
+			long size = Math.min(SEGMENT_WORDS, words - first) << 3;
+			segments[i] = channel.map(MapMode.READ_WRITE, HEADER_SIZE + (first << 3), size);
+			segments[i].order(ByteOrder.LITTLE_ENDIAN);
+		}
+		flipMode = false;
+		touched = new DirtyRows(height);
+		changed = new DirtyRows(height);
+	}
+
+	/**
+	 * Creates a new file with a cleared raster of the given width and height,
+	 * replacing the file if it already exists. Both dimensions must be at
+	 * least 1.
+	 * @param file path of the file
+	 * @param width raster width
+	 * @param height raster height
+	 * @return raster backed by the file
+	 * @throws IOException if creating the file fails
+	 */
+	public static BWRasterMapped create(Path file, int width, int height) throws IOException {
+		if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+			throw new IllegalArgumentException("Raster dimensions must be at least 1 pixel wide.");
+		}
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(width).putInt(height).putInt(0).flip();
+			while (header.hasRemaining()) {
+				channel.write(header);
+			}
+			return new BWRasterMapped(channel, width, height);
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Opens the raster stored in an existing file which was created by
+	 * {@link #create(Path, int, int)}.
+	 * @param file path of the file
+	 * @return raster backed by the file
+	 * @throws IOException if opening the file fails or it does not contain a raster
+	 */
+	public static BWRasterMapped open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining()) {
+				if (channel.read(header) < 0) {
+					throw new IOException("File does not contain a raster.");
+				}
+			}
+			header.flip();
+			int magic = header.getInt();
+			int width = header.getInt();
+			int height = header.getInt();
+			long words = (long) ((width + 63) >>> ADDRESS_BITS) * height;
+			if (magic != MAGIC || width < MIN_WIDTH || height < MIN_HEIGHT
+					|| channel.size() < HEADER_SIZE + (words << 3)) {
+				throw new IOException("File does not contain a raster.");
+			}
+			BWRasterMapped raster = new BWRasterMapped(channel, width, height);
+			// the content of the file is unknown, so all of it may need clearing
+			raster.touched.markAll(width);
+			return raster;
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	@Override
+	public void clear() {
+		for (int y = 0; y < height; ++y) {
+			if (touched.isDirty(y)) {
+				for (long i = wordIndex(touched.getMinX(y), y), last = wordIndex(touched.getMaxX(y), y); i <= last; ++i) {
+					setWord(i, 0L);
+				}
+			}
+		}
+		changed.markAll(touched);
+		touched.reset();
+	}
+
+	@Override
+	public void turnOn(int x, int y) {
+		checkBounds(x, y);
+		markDirty(y, x, x + 1);
+		applyMask(y, x >>> ADDRESS_BITS, 1L << x, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void turnOff(int x, int y) {
+		checkBounds(x, y);
+		markDirty(y, x, x + 1);
+		applyMask(y, x >>> ADDRESS_BITS, 1L << x, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void fillSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void clearSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void flipSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.FLIP);
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return wordsPerRow;
+	}
+
+	@Override
+	public long getWord(int y, int index) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		return getWord((long) y * wordsPerRow + index);
+	}
+
+	@Override
+	public BoundingBox getDirtyRegion() {
+		return changed.toBoundingBox();
+	}
+
+	@Override
+	public void markClean() {
+		changed.reset();
+	}
+
+	@Override
+	public void setWord(int y, int index, long word) {
+		if (y < 0 || y > height - 1 || index < 0 || index > wordsPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		int x0 = index << ADDRESS_BITS;
+		int x1 = Math.min(x0 + 64, width);
+		markDirty(y, x0, x1);
+		setWord((long) y * wordsPerRow + index, word & (-1L >>> -x1));
+	}
+
+	@Override
+	public void enableFlipMode() {
+		flipMode = true;
+	}
+
+	@Override
+	public void disableFlipMode() {
+		flipMode = false;
+	}
+
+	@Override
+	public boolean isTurnedOn(int x, int y) {
+		checkBounds(x, y);
+		return (getWord(wordIndex(x, y)) & (1L << x)) != 0;
+	}
+
+	/**
+	 * Writes all changes of the pixel data to the file.
+	 */
+	public void flush() {
+		for (MappedByteBuffer segment : segments) {
+			segment.force();
+		}
+	}
+
+	/**
+	 * Writes all changes to the file and closes it. The raster cannot be
+	 * used afterwards.
+	 */
+	@Override
+	public void close() throws IOException {
+		flush();
+		channel.close();
+	}
+
+	/**
+	 * Returns the index of the word which contains the pixel at the given
+	 * location.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 * @return index of the word containing the pixel
+	 */
+	private long wordIndex(int x, int y) {
+		return (long) y * wordsPerRow + (x >>> ADDRESS_BITS);
+	}
+
+	/**
+	 * Marks the pixels of the row y in the span from x0 (inclusive) to x1
+	 * (exclusive) as modified.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	private void markDirty(int y, int x0, int x1) {
+		touched.mark(y, x0, x1);
+		changed.mark(y, x0, x1);
+	}
+
+	/**
+	 * Returns the word at the given index.
+	 * @param index word index
+	 * @return word value
+	 */
+	private long getWord(long index) {
+		return segments[(int) (index >>> SEGMENT_BITS)].getLong((int) (index & (SEGMENT_WORDS - 1)) << 3);
+	}
+
+	/**
+	 * Sets the word at the given index.
+	 * @param index word index
+	 * @param value word value
+	 */
+	private void setWord(long index, long value) {
+		segments[(int) (index >>> SEGMENT_BITS)].putLong((int) (index & (SEGMENT_WORDS - 1)) << 3, value);
+	}
+
+	/**
+	 * Applies the given operation to the pixels of the row y in the span from
+	 * x0 (inclusive) to x1 (exclusive), a whole word at a time.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param operation operation
+	 */
+	private void applySpan(int y, int x0, int x1, SpanOperation operation) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		if (x0 == x1) {
+			return;
+		}
+		markDirty(y, x0, x1);
+		operation.applySpan(y, x0, x1, maskWriter);
+	}
+
+	/**
+	 * Applies the given operation to the bits of the word which are set in
+	 * the mask.
+	 * @param y position of the row containing the word
+	 * @param index index of the word in the row
+	 * @param mask bits to be changed
+	 * @param operation operation
+	 */
+	private void applyMask(int y, int index, long mask, SpanOperation operation) {
+		long i = (long) y * wordsPerRow + index;
+		setWord(i, operation.apply(getWord(i), mask));
+	}
+
+	/**
+	 * Throws IllegalArgumentException if given point is outside of raster
+	 * boundaries.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 */
+	private void checkBounds(int x, int y) {
+		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
+			throw new IllegalArgumentException("Given coordinates are out of bounds.");
+		}
+	}
+
+}
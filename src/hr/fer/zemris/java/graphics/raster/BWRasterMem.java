@@ -1,11 +1,15 @@
 package hr.fer.zemris.java.graphics.raster;
 
+import java.util.Arrays;
+
 /**
  * Implementation of BWRaster which keeps all of its data in memory.
+ * Clearing the raster only resets the pixels modified since it was
+ * last cleared.
  * @author labramusic
  *
  */
-public class BWRasterMem implements BWRaster {
+public class BWRasterMem implements DirtyTrackingRaster {
 
 	/**
 	 * Minimum raster width.
@@ -38,6 +42,16 @@ public class BWRasterMem implements BWRaster {
 	 */
 	private boolean flipMode;
 
+	/**
+	 * Pixels modified since the raster was last cleared.
+	 */
+	private DirtyRows touched;
+
+	/**
+	 * Pixels modified since the last snapshot.
+	 */
+	private DirtyRows changed;
+
 	/**
 	 * Constructor which accepts raster width and height.
 	 * Both must be at least 1.
@@ -52,6 +66,8 @@ public class BWRasterMem implements BWRaster {
 		this.height = height;
 		raster = new boolean[height][width];
 		flipMode = false;
+		touched = new DirtyRows(height);
+		changed = new DirtyRows(height);
 	}
 
 	@Override
@@ -66,12 +82,13 @@ public class BWRasterMem implements BWRaster {
 
 	@Override
 	public void clear() {
-		for (int i = 0; i < height; ++i) {
-			for (int j = 0; j < width; ++j) {
-				raster[i][j] = false;
+		for (int y = 0; y < height; ++y) {
+			if (touched.isDirty(y)) {
+				Arrays.fill(raster[y], touched.getMinX(y), touched.getMaxX(y) + 1, false);
 			}
 		}
-
+		changed.markAll(touched);
+		touched.reset();
 	}
 
 	@Override
@@ -79,6 +96,7 @@ public class BWRasterMem implements BWRaster {
 		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
 			throw new IllegalArgumentException("Given coordinates are out of bounds.");
 		}
+		markDirty(y, x, x + 1);
 
 		if (flipMode) {
 			if (isTurnedOn(x, y)) {
@@ -97,9 +115,51 @@ public class BWRasterMem implements BWRaster {
 		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
 			throw new IllegalArgumentException("Given coordinates are out of bounds.");
 		}
+		markDirty(y, x, x + 1);
 		raster[y][x] = false;
 	}
 
+	@Override
+	public void fillSpan(int y, int x0, int x1) {
+		checkSpan(y, x0, x1);
+		if (x0 < x1) {
+			markDirty(y, x0, x1);
+		}
+		if (flipMode) {
+			flipRow(raster[y], x0, x1);
+		} else {
+			Arrays.fill(raster[y], x0, x1, true);
+		}
+	}
+
+	@Override
+	public void clearSpan(int y, int x0, int x1) {
+		checkSpan(y, x0, x1);
+		if (x0 < x1) {
+			markDirty(y, x0, x1);
+		}
+		Arrays.fill(raster[y], x0, x1, false);
+	}
+
+	@Override
+	public void flipSpan(int y, int x0, int x1) {
+		checkSpan(y, x0, x1);
+		if (x0 < x1) {
+			markDirty(y, x0, x1);
+		}
+		flipRow(raster[y], x0, x1);
+	}
+
+	@Override
+	public BoundingBox getDirtyRegion() {
+		return changed.toBoundingBox();
+	}
+
+	@Override
+	public void markClean() {
+		changed.reset();
+	}
+
 	@Override
 	public void enableFlipMode() {
 		flipMode = true;
@@ -120,4 +180,42 @@ public class BWRasterMem implements BWRaster {
 		return raster[y][x];
 	}
 
+	/**
+	 * Marks the pixels of the row y in the span from x0 (inclusive) to x1
+	 * (exclusive) as modified.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	private void markDirty(int y, int x0, int x1) {
+		touched.mark(y, x0, x1);
+		changed.mark(y, x0, x1);
+	}
+
+	/**
+	 * Flips the pixels of the given row in the span from x0 (inclusive)
+	 * to x1 (exclusive).
+	 * @param row raster row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	private static void flipRow(boolean[] row, int x0, int x1) {
+		for (int x = x0; x < x1; ++x) {
+			row[x] = !row[x];
+		}
+	}
+
+	/**
+	 * Throws IllegalArgumentException if given span is outside of raster
+	 * boundaries.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	private void checkSpan(int y, int x0, int x1) {
+		if (y < 0 || y > height - 1 || x0 < 0 || x1 < x0 || x1 > width) {
+			throw new IllegalArgumentException("Given span is out of bounds.");
+		}
+	}
+
 }
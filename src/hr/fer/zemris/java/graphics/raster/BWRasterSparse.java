@@ -0,0 +1,329 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Implementation of BWRaster for mostly empty rasters, which stores each row
+ * as a sorted list of runs of pixels that are turned on. Memory used by a row
+ * depends only on the number of its runs, and rows without any pixels turned
+ * on take no memory at all. Turning pixels on, off or flipping them splits
+ * and merges the runs of the affected row.
+ *
+ * @author labramusic
+ *
+ */
+public class BWRasterSparse implements RunLengthRaster, DirtyTrackingRaster {
+
+	/**
+	 * Minimum raster width.
+	 */
+	private final static int MIN_WIDTH = 1;
+
+	/**
+	 * Minimum raster height.
+	 */
+	private final static int MIN_HEIGHT = 1;
+
+	/**
+	 * Number of runs a row has room for when it is first used.
+	 */
+	private final static int INITIAL_RUNS = 4;
+
+	/**
+	 * Number of runs by which an operation can grow a row at most.
+	 */
+	private final static int MAX_GROWTH = 3;
+
+	/**
+	 * Raster width.
+	 */
+	private int width;
+
+	/**
+	 * Raster height.
+	 */
+	private int height;
+
+	/**
+	 * Runs of each row, stored as pairs of starting (inclusive) and ending
+	 * (exclusive) positions. Rows which were never used are null.
+	 */
+	private int[][] runs;
+
+	/**
+	 * Number of runs in each row.
+	 */
+	private int[] runCounts;
+
+	/**
+	 * Flip mode.
+	 */
+	private boolean flipMode;
+
+	/**
+	 * Pixels modified since the last snapshot.
+	 */
+	private DirtyRows changed;
+
+	/**
+	 * Constructor which accepts raster width and height.
+	 * Both must be at least 1.
+	 * @param width raster width
+	 * @param height raster height
+	 */
+	public BWRasterSparse(int width, int height) {
+		if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+			throw new IllegalArgumentException("Raster dimensions must be at least 1 pixel wide.");
+		}
+		this.width = width;
+		this.height = height;
+		runs = new int[height][];
+		runCounts = new int[height];
+		flipMode = false;
+		changed = new DirtyRows(height);
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Removes all runs, keeping the memory of the rows for later use.
+	 */
+	@Override
+	public void clear() {
+		for (int y = 0; y < height; ++y) {
+			int count = runCounts[y];
+			if (count > 0) {
+				changed.mark(y, runs[y][0], runs[y][2 * count - 1]);
+				runCounts[y] = 0;
+			}
+		}
+	}
+
+	@Override
+	public void turnOn(int x, int y) {
+		checkBounds(x, y);
+		applySpan(y, x, x + 1, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void turnOff(int x, int y) {
+		checkBounds(x, y);
+		applySpan(y, x, x + 1, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void fillSpan(int y, int x0, int x1) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		applySpan(y, x0, x1, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void clearSpan(int y, int x0, int x1) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		applySpan(y, x0, x1, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void flipSpan(int y, int x0, int x1) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		applySpan(y, x0, x1, SpanOperation.FLIP);
+	}
+
+	@Override
+	public BoundingBox getDirtyRegion() {
+		return changed.toBoundingBox();
+	}
+
+	@Override
+	public void markClean() {
+		changed.reset();
+	}
+
+	@Override
+	public void enableFlipMode() {
+		flipMode = true;
+	}
+
+	@Override
+	public void disableFlipMode() {
+		flipMode = false;
+	}
+
+	@Override
+	public boolean isTurnedOn(int x, int y) {
+		checkBounds(x, y);
+		int[] row = runs[y];
+		// the only run which can contain x is the first one ending after x
+		int index = firstEndingAfter(row, runCounts[y], x);
+		return index < runCounts[y] && row[2 * index] <= x;
+	}
+
+	@Override
+	public int getRunCount(int y) {
+		if (y < 0 || y > height - 1) {
+			throw new IllegalArgumentException("Given row is out of bounds.");
+		}
+		return runCounts[y];
+	}
+
+	@Override
+	public int getRunStart(int y, int index) {
+		checkRun(y, index);
+		return runs[y][2 * index];
+	}
+
+	@Override
+	public int getRunEnd(int y, int index) {
+		checkRun(y, index);
+		return runs[y][2 * index + 1];
+	}
+
+	/**
+	 * Applies the given operation to the pixels of the row y in the span
+	 * from x0 (inclusive) to x1 (exclusive). The runs which overlap or touch
+	 * the span are replaced by the runs of the result, which are built in
+	 * place after moving the rest of the row out of the way.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param operation operation
+	 */
+	private void applySpan(int y, int x0, int x1, SpanOperation operation) {
+		if (x0 == x1) {
+			return;
+		}
+		changed.mark(y, x0, x1);
+		int count = runCounts[y];
+		int[] row = ensureCapacity(y, count + MAX_GROWTH);
+		// runs from first to last (exclusive) overlap or touch the span
+		int first = firstEndingAfter(row, count, x0 - 1);
+		int last = first;
+		while (last < count && row[2 * last] <= x1) {
+			++last;
+		}
+		System.arraycopy(row, 2 * first, row, 2 * (first + MAX_GROWTH), 2 * (count - first));
+
+		// read the old runs from their new place, and write the result
+		// from the first run on, which never overtakes the reading
+		int read = first + MAX_GROWTH;
+		int readEnd = last + MAX_GROWTH;
+		int write = first;
+		if (read < readEnd && row[2 * read] < x0) {
+			write = emit(row, first, write, row[2 * read], x0);
+		}
+		if (operation == SpanOperation.SET) {
+			write = emit(row, first, write, x0, x1);
+		} else if (operation == SpanOperation.FLIP) {
+			int cursor = x0;
+			for (int i = read; i < readEnd; ++i) {
+				int start = Math.min(Math.max(row[2 * i], x0), x1);
+				write = emit(row, first, write, cursor, start);
+				cursor = Math.max(cursor, Math.min(row[2 * i + 1], x1));
+			}
+			write = emit(row, first, write, cursor, x1);
+		}
+		if (read < readEnd && row[2 * readEnd - 1] > x1) {
+			write = emit(row, first, write, x1, row[2 * readEnd - 1]);
+		}
+
+		System.arraycopy(row, 2 * readEnd, row, 2 * write, 2 * (count - last));
+		runCounts[y] = write + count - last;
+	}
+
+	/**
+	 * Writes the run from start (inclusive) to end (exclusive) at the given
+	 * index, merging it with the previously written run if they touch.
+	 * Empty runs are skipped.
+	 * @param row runs of the row
+	 * @param first index of the first run written by the current operation
+	 * @param write index at which the run is written
+	 * @param start starting position of the run, inclusive
+	 * @param end ending position of the run, exclusive
+	 * @return index at which the next run is written
+	 */
+	private static int emit(int[] row, int first, int write, int start, int end) {
+		if (start >= end) {
+			return write;
+		}
+		if (write > first && row[2 * write - 1] == start) {
+			row[2 * write - 1] = end;
+			return write;
+		}
+		row[2 * write] = start;
+		row[2 * write + 1] = end;
+		return write + 1;
+	}
+
+	/**
+	 * Returns the index of the first run of the row which ends after the
+	 * given position, or the number of runs if there is none.
+	 * @param row runs of the row
+	 * @param count number of runs in the row
+	 * @param x position at x axis
+	 * @return index of the first run ending after x
+	 */
+	private static int firstEndingAfter(int[] row, int count, int x) {
+		int low = 0;
+		int high = count;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (row[2 * middle + 1] > x) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Makes sure the given row has room for the given number of runs.
+	 * @param y position of the row
+	 * @param capacity number of runs
+	 * @return runs of the row
+	 */
+	private int[] ensureCapacity(int y, int capacity) {
+		int[] row = runs[y];
+		if (row == null) {
+			row = new int[2 * Math.max(INITIAL_RUNS, capacity)];
+			runs[y] = row;
+		} else if (row.length < 2 * capacity) {
+			int[] grown = new int[2 * Math.max(capacity, row.length)];
+			System.arraycopy(row, 0, grown, 0, 2 * runCounts[y]);
+			row = grown;
+			runs[y] = row;
+		}
+		return row;
+	}
+
+	/**
+	 * Throws IllegalArgumentException if given point is outside of raster
+	 * boundaries.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 */
+	private void checkBounds(int x, int y) {
+		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
+			throw new IllegalArgumentException("Given coordinates are out of bounds.");
+		}
+	}
+
+	/**
+	 * Throws IllegalArgumentException if the given row or run index
+	 * is out of bounds.
+	 * @param y position of the row
+	 * @param index index of the run
+	 */
+	private void checkRun(int y, int index) {
+		if (y < 0 || y > height - 1 || index < 0 || index > runCounts[y] - 1) {
+			throw new IllegalArgumentException("Given run is out of bounds.");
+		}
+	}
+
+}
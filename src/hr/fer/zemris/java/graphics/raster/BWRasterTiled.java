@@ -0,0 +1,286 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Implementation of BWRaster for very large and sparse rasters, which divides
+ * the raster into tiles of 64x64 pixels. Each tile is stored as 64 long words,
+ * one word per tile row, and is allocated only when one of its pixels is
+ * turned on for the first time. Reading or turning off pixels of tiles which
+ * were never allocated does not allocate anything, so the memory used is
+ * proportional to the area actually drawn. Since tiles are 64 pixels wide,
+ * the words of a raster row are exactly the words of the tiles it crosses.
+ * <p>
+ * Tiles are allocated under a lock, so different rows of the raster can be
+ * modified concurrently.
+ *
+ * @author labramusic
+ *
+ */
+public class BWRasterTiled implements BitPackedRaster {
+
+	/**
+	 * Minimum raster width.
+	 */
+	private final static int MIN_WIDTH = 1;
+
+	/**
+	 * Minimum raster height.
+	 */
+	private final static int MIN_HEIGHT = 1;
+
+	/**
+	 * Number of bits used for addressing a pixel inside of a tile,
+	 * in either direction.
+	 */
+	private final static int TILE_BITS = 6;
+
+	/**
+	 * Tile width and height.
+	 */
+	private final static int TILE_SIZE = 1 << TILE_BITS;
+
+	/**
+	 * Raster width.
+	 */
+	private int width;
+
+	/**
+	 * Raster height.
+	 */
+	private int height;
+
+	/**
+	 * Number of tiles in a row of tiles.
+	 */
+	private int tilesPerRow;
+
+	/**
+	 * Tiles, indexed by their row and column. Rows of tiles and tiles which
+	 * were never allocated are null.
+	 */
+	private long[][][] tiles;
+
+	/**
+	 * Number of allocated tiles.
+	 */
+	private int allocatedTiles;
+
+	/**
+	 * Flip mode.
+	 */
+	private boolean flipMode;
+
+	/**
+	 * Writer which applies span masks to the tile words of the raster.
+	 */
+	private SpanOperation.MaskWriter maskWriter = this::applyMask;
+
+	/**
+	 * Constructor which accepts raster width and height.
+	 * Both must be at least 1.
+	 * @param width raster width
+	 * @param height raster height
+	 */
+	public BWRasterTiled(int width, int height) {
+		if (width < MIN_WIDTH || height < MIN_HEIGHT) {
+			throw new IllegalArgumentException("Raster dimensions must be at least 1 pixel wide.");
+		}
+		this.width = width;
+		this.height = height;
+		tilesPerRow = (int) (((long) width + TILE_SIZE - 1) >>> TILE_BITS);
+		tiles = new long[(int) (((long) height + TILE_SIZE - 1) >>> TILE_BITS)][][];
+		flipMode = false;
+	}
+
+	@Override
+	public int getWidth() {
+		return width;
+	}
+
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Turns off all the pixels by releasing all the tiles.
+	 */
+	@Override
+	public synchronized void clear() {
+		for (int i = 0; i < tiles.length; ++i) {
+			tiles[i] = null;
+		}
+		allocatedTiles = 0;
+	}
+
+	@Override
+	public void turnOn(int x, int y) {
+		checkBounds(x, y);
+		applyMask(y, x >>> TILE_BITS, 1L << x, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void turnOff(int x, int y) {
+		checkBounds(x, y);
+		applyMask(y, x >>> TILE_BITS, 1L << x, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void fillSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.fill(flipMode));
+	}
+
+	@Override
+	public void clearSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.CLEAR);
+	}
+
+	@Override
+	public void flipSpan(int y, int x0, int x1) {
+		applySpan(y, x0, x1, SpanOperation.FLIP);
+	}
+
+	@Override
+	public int getWordsPerRow() {
+		return tilesPerRow;
+	}
+
+	@Override
+	public long getWord(int y, int index) {
+		if (y < 0 || y > height - 1 || index < 0 || index > tilesPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		long[] tile = getTile(y >>> TILE_BITS, index);
+		return tile == null ? 0L : tile[y & (TILE_SIZE - 1)];
+	}
+
+	/**
+	 * Sets the word with the given index in the given row. Setting a word
+	 * of a tile which was never allocated to zero does not allocate it.
+	 */
+	@Override
+	public void setWord(int y, int index, long word) {
+		if (y < 0 || y > height - 1 || index < 0 || index > tilesPerRow - 1) {
+			throw new IllegalArgumentException("Given word is out of bounds.");
+		}
+		int x1 = (int) Math.min(((long) index << TILE_BITS) + TILE_SIZE, width);
+		word &= -1L >>> -x1;
+		long[] tile = word == 0 ? getTile(y >>> TILE_BITS, index) : getOrAllocateTile(y >>> TILE_BITS, index);
+		if (tile != null) {
+			tile[y & (TILE_SIZE - 1)] = word;
+		}
+	}
+
+	@Override
+	public void enableFlipMode() {
+		flipMode = true;
+	}
+
+	@Override
+	public void disableFlipMode() {
+		flipMode = false;
+	}
+
+	@Override
+	public boolean isTurnedOn(int x, int y) {
+		checkBounds(x, y);
+		long[] tile = getTile(y >>> TILE_BITS, x >>> TILE_BITS);
+		return tile != null && (tile[y & (TILE_SIZE - 1)] & (1L << x)) != 0;
+	}
+
+	/**
+	 * Returns the number of tiles which are currently allocated.
+	 * @return number of allocated tiles
+	 */
+	public synchronized int getAllocatedTileCount() {
+		return allocatedTiles;
+	}
+
+	/**
+	 * Returns the tile at the given row and column of tiles,
+	 * or null if it was not allocated.
+	 * @param tileRow row of the tile
+	 * @param tileColumn column of the tile
+	 * @return tile, or null
+	 */
+	private long[] getTile(int tileRow, int tileColumn) {
+		long[][] row = tiles[tileRow];
+		return row == null ? null : row[tileColumn];
+	}
+
+	/**
+	 * Returns the tile at the given row and column of tiles,
+	 * allocating it first if needed.
+	 * @param tileRow row of the tile
+	 * @param tileColumn column of the tile
+	 * @return tile
+	 */
+	private long[] getOrAllocateTile(int tileRow, int tileColumn) {
+		long[] tile = getTile(tileRow, tileColumn);
+		if (tile != null) {
+			return tile;
+		}
+		synchronized (this) {
+			long[][] row = tiles[tileRow];
+			if (row == null) {
+				row = new long[tilesPerRow][];
+				tiles[tileRow] = row;
+			}
+			tile = row[tileColumn];
+			if (tile == null) {
+				tile = new long[TILE_SIZE];
+				row[tileColumn] = tile;
+				++allocatedTiles;
+			}
+			return tile;
+		}
+	}
+
+	/**
+	 * Applies the given operation to the pixels of the row y in the span from
+	 * x0 (inclusive) to x1 (exclusive), a whole tile word at a time. Since
+	 * tiles are 64 pixels wide, the index of a word in the row is the column
+	 * of its tile.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param operation operation
+	 */
+	private void applySpan(int y, int x0, int x1, SpanOperation operation) {
+		SpanOperation.checkSpan(y, x0, x1, width, height);
+		if (x0 == x1) {
+			return;
+		}
+		operation.applySpan(y, x0, x1, maskWriter);
+	}
+
+	/**
+	 * Applies the given operation to the bits of the tile word of row y which
+	 * are set in the mask. Tiles are not allocated just for turning pixels off.
+	 * @param y position of the row
+	 * @param tileColumn column of the tile
+	 * @param mask bits to be changed
+	 * @param operation operation
+	 */
+	private void applyMask(int y, int tileColumn, long mask, SpanOperation operation) {
+		int tileRow = y >>> TILE_BITS;
+		long[] tile = operation == SpanOperation.CLEAR ? getTile(tileRow, tileColumn)
+				: getOrAllocateTile(tileRow, tileColumn);
+		if (tile != null) {
+			int index = y & (TILE_SIZE - 1);
+			tile[index] = operation.apply(tile[index], mask);
+		}
+	}
+
+	/**
+	 * Throws IllegalArgumentException if given point is outside of raster
+	 * boundaries.
+	 * @param x x position of pixel
+	 * @param y y position of pixel
+	 */
+	private void checkBounds(int x, int y) {
+		if (x < 0 || x > width - 1 || y < 0 || y > height - 1) {
+			throw new IllegalArgumentException("Given coordinates are out of bounds.");
+		}
+	}
+
+}
@@ -0,0 +1,142 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Raster which stores its pixels packed 64 to a long word, with each row
+ * starting at a new word. Pixel x of a row is stored in bit (x % 64) of the
+ * word (x / 64) of that row, and the bits past the raster width in the last
+ * word of a row are always zero. Views and other tools can use the words
+ * directly in order to process 64 pixels at a time.
+ * 
+ * @author labramusic
+ *
+ */
+public interface BitPackedRaster extends BWRaster {
+
+	/**
+	 * Returns the number of words used for a single raster row.
+	 * 
+	 * @return number of words in a row
+	 */
+	int getWordsPerRow();
+
+	/**
+	 * Returns the word with the given index in the given row. Throws
+	 * IllegalArgumentException if the row or the index is out of bounds.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param index
+	 *            index of the word in the row
+	 * @return word containing the pixels from index * 64 to index * 64 + 63
+	 */
+	long getWord(int y, int index);
+
+	/**
+	 * Sets the word with the given index in the given row. Bits past the
+	 * raster width are ignored. Flip mode does not affect this method. Throws
+	 * IllegalArgumentException if the row or the index is out of bounds.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param index
+	 *            index of the word in the row
+	 * @param word
+	 *            word containing the pixels from index * 64 to index * 64 + 63
+	 */
+	void setWord(int y, int index, long word);
+
+	/**
+	 * Replaces the word with the given index in the given row, w, by the word
+	 * (w &amp; and) ^ xor, which can express turning on, turning off, flipping
+	 * or keeping any of its bits. Bits past the raster width are ignored, and
+	 * flip mode does not affect this method. Rasters which can be drawn on by
+	 * many threads at once update the word atomically, so that concurrent
+	 * changes of the other bits of the word are not lost. Throws
+	 * IllegalArgumentException if the row or the index is out of bounds.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param index
+	 *            index of the word in the row
+	 * @param and
+	 *            mask which is and-ed with the word
+	 * @param xor
+	 *            mask which is then xor-ed with the word
+	 */
+	default void updateWord(int y, int index, long and, long xor) {
+		long word = getWord(y, index);
+		long updated = (word & and) ^ xor;
+		if (updated != word) {
+			setWord(y, index, updated);
+		}
+	}
+
+	/**
+	 * Counts the pixels turned on inside of the region a whole word
+	 * at a time.
+	 */
+	@Override
+	default long cardinality(BoundingBox region) {
+		if (region == null) {
+			throw new IllegalArgumentException("Region cannot be null.");
+		}
+		BoundingBox clip = region.intersection(BoundingBox.of(this));
+		if (clip == null) {
+			return 0;
+		}
+		int x0 = clip.getMinX();
+		int x1 = clip.getMaxX() + 1;
+		int first = x0 >>> 6;
+		int last = (x1 - 1) >>> 6;
+		long firstMask = -1L << x0;
+		long lastMask = -1L >>> -x1;
+		long count = 0;
+		for (int y = clip.getMinY(); y <= clip.getMaxY(); ++y) {
+			if (first == last) {
+				count += Long.bitCount(getWord(y, first) & firstMask & lastMask);
+				continue;
+			}
+			count += Long.bitCount(getWord(y, first) & firstMask);
+			for (int i = first + 1; i < last; ++i) {
+				count += Long.bitCount(getWord(y, i));
+			}
+			count += Long.bitCount(getWord(y, last) & lastMask);
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the pixels turned on in each row a whole word at a time.
+	 */
+	@Override
+	default int[] rowCounts() {
+		int words = getWordsPerRow();
+		int[] counts = new int[getHeight()];
+		for (int y = 0; y < counts.length; ++y) {
+			for (int i = 0; i < words; ++i) {
+				counts[y] += Long.bitCount(getWord(y, i));
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts the pixels turned on in each column by visiting only the bits
+	 * which are set, skipping empty words entirely.
+	 */
+	@Override
+	default int[] columnCounts() {
+		int words = getWordsPerRow();
+		int height = getHeight();
+		int[] counts = new int[getWidth()];
+		for (int y = 0; y < height; ++y) {
+			for (int i = 0; i < words; ++i) {
+				for (long word = getWord(y, i); word != 0; word &= word - 1) {
+					++counts[(i << 6) + Long.numberOfTrailingZeros(word)];
+				}
+			}
+		}
+		return counts;
+	}
+
+}
@@ -0,0 +1,172 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Unmodifiable axis-aligned rectangle of pixels, defined by its minimum and
+ * maximum x and y coordinates. Both the minimum and the maximum coordinates
+ * belong to the box, so a box always contains at least one pixel.
+ *
+ * @author labramusic
+ *
+ */
+public class BoundingBox {
+
+	/**
+	 * Minimum x coordinate.
+	 */
+	private final int minX;
+
+	/**
+	 * Minimum y coordinate.
+	 */
+	private final int minY;
+
+	/**
+	 * Maximum x coordinate.
+	 */
+	private final int maxX;
+
+	/**
+	 * Maximum y coordinate.
+	 */
+	private final int maxY;
+
+	/**
+	 * Constructor which initializes a new bounding box with its minimum and
+	 * maximum coordinates. Minimum coordinates cannot be greater than the
+	 * maximum coordinates.
+	 *
+	 * @param minX
+	 *            minimum x coordinate
+	 * @param minY
+	 *            minimum y coordinate
+	 * @param maxX
+	 *            maximum x coordinate
+	 * @param maxY
+	 *            maximum y coordinate
+	 */
+	public BoundingBox(int minX, int minY, int maxX, int maxY) {
+		if (minX > maxX || minY > maxY) {
+			throw new IllegalArgumentException("Minimum coordinates cannot be greater than maximum coordinates.");
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+	}
+
+	/**
+	 * Returns the bounding box which covers the whole given raster.
+	 *
+	 * @param raster
+	 *            raster
+	 * @return bounding box of the raster
+	 */
+	public static BoundingBox of(BWRaster raster) {
+		return new BoundingBox(0, 0, raster.getWidth() - 1, raster.getHeight() - 1);
+	}
+
+	/**
+	 * Returns the minimum x coordinate.
+	 *
+	 * @return minimum x coordinate
+	 */
+	public int getMinX() {
+		return minX;
+	}
+
+	/**
+	 * Returns the minimum y coordinate.
+	 *
+	 * @return minimum y coordinate
+	 */
+	public int getMinY() {
+		return minY;
+	}
+
+	/**
+	 * Returns the maximum x coordinate.
+	 *
+	 * @return maximum x coordinate
+	 */
+	public int getMaxX() {
+		return maxX;
+	}
+
+	/**
+	 * Returns the maximum y coordinate.
+	 *
+	 * @return maximum y coordinate
+	 */
+	public int getMaxY() {
+		return maxY;
+	}
+
+	/**
+	 * Returns true if the given point belongs to this bounding box, false
+	 * otherwise.
+	 *
+	 * @param x
+	 *            x coordinate of the point
+	 * @param y
+	 *            y coordinate of the point
+	 * @return true if the point is inside of the bounding box
+	 */
+	public boolean contains(int x, int y) {
+		return x >= minX && x <= maxX && y >= minY && y <= maxY;
+	}
+
+	/**
+	 * Returns true if this and the given bounding box have at least one pixel
+	 * in common, false otherwise.
+	 *
+	 * @param other
+	 *            other bounding box
+	 * @return true if the bounding boxes intersect
+	 */
+	public boolean intersects(BoundingBox other) {
+		return minX <= other.maxX && other.minX <= maxX && minY <= other.maxY && other.minY <= maxY;
+	}
+
+	/**
+	 * Returns the bounding box which contains the pixels common to this and
+	 * the given bounding box, or null if they don't intersect.
+	 *
+	 * @param other
+	 *            other bounding box
+	 * @return intersection of the bounding boxes, or null if there is none
+	 */
+	public BoundingBox intersection(BoundingBox other) {
+		if (!intersects(other)) {
+			return null;
+		}
+		return new BoundingBox(Math.max(minX, other.minX), Math.max(minY, other.minY),
+				Math.min(maxX, other.maxX), Math.min(maxY, other.maxY));
+	}
+
+	@Override
+	public int hashCode() {
+		int result = minX;
+		result = 31 * result + minY;
+		result = 31 * result + maxX;
+		result = 31 * result + maxY;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BoundingBox)) {
+			return false;
+		}
+		BoundingBox other = (BoundingBox) obj;
+		return minX == other.minX && minY == other.minY && maxX == other.maxX && maxY == other.maxY;
+	}
+
+	@Override
+	public String toString() {
+		return "(" + minX + ", " + minY + ") - (" + maxX + ", " + maxY + ")";
+	}
+
+}
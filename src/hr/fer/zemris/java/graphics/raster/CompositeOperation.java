@@ -0,0 +1,94 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Boolean operation which combines a destination pixel with the source pixel
+ * above it, used by {@link RasterOps}. Each operation can be applied to whole
+ * words of pixels, and can also update a word of a bit-packed destination
+ * with a single {@link BitPackedRaster#updateWord(int, int, long, long)}
+ * call, since it only depends on the source bits.
+ *
+ * @author labramusic
+ *
+ */
+enum CompositeOperation {
+
+	/**
+	 * Turns on pixels turned on in either raster.
+	 */
+	OR {
+		@Override
+		long apply(long word, long srcWord) {
+			return word | srcWord;
+		}
+
+		@Override
+		void updateWord(BitPackedRaster dest, int y, int index, long srcWord, long mask) {
+			dest.updateWord(y, index, ~(srcWord & mask), srcWord & mask);
+		}
+	},
+
+	/**
+	 * Turns on pixels turned on in both rasters.
+	 */
+	AND {
+		@Override
+		long apply(long word, long srcWord) {
+			return word & srcWord;
+		}
+
+		@Override
+		void updateWord(BitPackedRaster dest, int y, int index, long srcWord, long mask) {
+			dest.updateWord(y, index, srcWord | ~mask, 0L);
+		}
+	},
+
+	/**
+	 * Turns on pixels turned on in exactly one raster.
+	 */
+	XOR {
+		@Override
+		long apply(long word, long srcWord) {
+			return word ^ srcWord;
+		}
+
+		@Override
+		void updateWord(BitPackedRaster dest, int y, int index, long srcWord, long mask) {
+			dest.updateWord(y, index, -1L, srcWord & mask);
+		}
+	},
+
+	/**
+	 * Turns on pixels turned on in the destination, but not in the source.
+	 */
+	AND_NOT {
+		@Override
+		long apply(long word, long srcWord) {
+			return word & ~srcWord;
+		}
+
+		@Override
+		void updateWord(BitPackedRaster dest, int y, int index, long srcWord, long mask) {
+			dest.updateWord(y, index, ~(srcWord & mask), 0L);
+		}
+	};
+
+	/**
+	 * Applies the operation to a destination and a source word.
+	 * @param word destination word
+	 * @param srcWord source word
+	 * @return resulting word
+	 */
+	abstract long apply(long word, long srcWord);
+
+	/**
+	 * Applies the operation to the bits of a destination word which are set
+	 * in the mask, leaving the other bits unchanged.
+	 * @param dest destination raster
+	 * @param y position of the row containing the word
+	 * @param index index of the word in the row
+	 * @param srcWord source pixels above the word
+	 * @param mask bits to be changed
+	 */
+	abstract void updateWord(BitPackedRaster dest, int y, int index, long srcWord, long mask);
+
+}
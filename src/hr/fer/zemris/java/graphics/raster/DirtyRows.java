@@ -0,0 +1,132 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import java.util.Arrays;
+
+/**
+ * Keeps track of the pixels of a raster which were modified, as the range
+ * of modified pixels in each row. Different rows can be marked from
+ * different threads at the same time.
+ * 
+ * @author labramusic
+ *
+ */
+class DirtyRows {
+
+	/**
+	 * Position of the first modified pixel of each row.
+	 */
+	private int[] minX;
+
+	/**
+	 * Position of the last modified pixel of each row,
+	 * or -1 if the row was not modified.
+	 */
+	private int[] maxX;
+
+	/**
+	 * Constructor which initializes tracking for a raster of the given height,
+	 * with no rows modified.
+	 * @param height raster height
+	 */
+	public DirtyRows(int height) {
+		minX = new int[height];
+		maxX = new int[height];
+		reset();
+	}
+
+	/**
+	 * Marks the pixels of the row y in the span from x0 (inclusive) to x1
+	 * (exclusive) as modified. The span must not be empty.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	public void mark(int y, int x0, int x1) {
+		if (x0 < minX[y]) {
+			minX[y] = x0;
+		}
+		if (x1 - 1 > maxX[y]) {
+			maxX[y] = x1 - 1;
+		}
+	}
+
+	/**
+	 * Marks all the pixels of a raster with the given width as modified.
+	 * @param width raster width
+	 */
+	public void markAll(int width) {
+		Arrays.fill(minX, 0);
+		Arrays.fill(maxX, width - 1);
+	}
+
+	/**
+	 * Marks all the pixels marked in the given tracker as modified.
+	 * @param other tracker of a raster with the same height
+	 */
+	public void markAll(DirtyRows other) {
+		for (int y = 0; y < minX.length; ++y) {
+			if (other.isDirty(y)) {
+				mark(y, other.minX[y], other.maxX[y] + 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns true if any pixel of the given row was modified.
+	 * @param y position of the row
+	 * @return true if the row was modified
+	 */
+	public boolean isDirty(int y) {
+		return maxX[y] >= 0;
+	}
+
+	/**
+	 * Returns the position of the first modified pixel of the given row.
+	 * @param y position of the row, which must be modified
+	 * @return position of the first modified pixel
+	 */
+	public int getMinX(int y) {
+		return minX[y];
+	}
+
+	/**
+	 * Returns the position of the last modified pixel of the given row.
+	 * @param y position of the row, which must be modified
+	 * @return position of the last modified pixel
+	 */
+	public int getMaxX(int y) {
+		return maxX[y];
+	}
+
+	/**
+	 * Returns the smallest bounding box containing all modified pixels,
+	 * or null if no pixel was modified.
+	 * @return bounding box of the modified pixels
+	 */
+	public BoundingBox toBoundingBox() {
+		int minRow = -1;
+		int maxRow = -1;
+		int min = Integer.MAX_VALUE;
+		int max = -1;
+		for (int y = 0; y < maxX.length; ++y) {
+			if (isDirty(y)) {
+				if (minRow < 0) {
+					minRow = y;
+				}
+				maxRow = y;
+				min = Math.min(min, minX[y]);
+				max = Math.max(max, maxX[y]);
+			}
+		}
+		return minRow < 0 ? null : new BoundingBox(min, minRow, max, maxRow);
+	}
+
+	/**
+	 * Marks all rows as not modified.
+	 */
+	public void reset() {
+		Arrays.fill(minX, Integer.MAX_VALUE);
+		Arrays.fill(maxX, -1);
+	}
+
+}
@@ -0,0 +1,29 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Raster which keeps track of the region modified since the last snapshot,
+ * so that views and exporters can redraw or export only that region. The
+ * region is conservative: it contains every pixel any operation was applied
+ * to, even if the operation left the pixel in the same state. Clearing the
+ * raster marks all the pixels it turns off as modified.
+ * 
+ * @author labramusic
+ *
+ */
+public interface DirtyTrackingRaster extends BWRaster {
+
+	/**
+	 * Returns the smallest bounding box containing all the pixels modified
+	 * since the last call to {@link #markClean()}, or since the raster was
+	 * created. Returns null if no pixel was modified.
+	 * 
+	 * @return bounding box of the modified pixels, or null
+	 */
+	BoundingBox getDirtyRegion();
+
+	/**
+	 * Starts a new snapshot by marking all the pixels as not modified.
+	 */
+	void markClean();
+
+}
@@ -0,0 +1,270 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Boolean compositing operations between two rasters. The source raster is
+ * placed on the destination raster at the given offset, and the operation is
+ * applied to each destination pixel covered by the source, using the source
+ * pixel above it. Destination pixels outside of the source are left
+ * unchanged. Flip mode of the destination does not affect the operations.
+ * <p>
+ * When both rasters are bit-packed, the operations are applied a whole
+ * 64-pixel word at a time, shifting the source words into place when the
+ * offset is not a multiple of 64. Each destination word is changed with a
+ * single {@link BitPackedRaster#updateWord(int, int, long, long)} call, so
+ * compositing into a raster which updates words atomically, such as
+ * {@link BWRasterConcurrent}, does not lose pixels drawn by other threads.
+ * Other rasters are processed pixel by pixel, flipping runs of destination
+ * pixels which change.
+ *
+ * @author labramusic
+ *
+ */
+public class RasterOps {
+
+	/**
+	 * Private constructor, since this class only offers static methods.
+	 */
+	private RasterOps() {
+	}
+
+	/**
+	 * Turns on the destination pixels which are turned on in the source
+	 * placed at the top left corner.
+	 * @param dest destination raster
+	 * @param src source raster
+	 */
+	public static void or(BWRaster dest, BWRaster src) {
+		or(dest, src, 0, 0);
+	}
+
+	/**
+	 * Turns on the destination pixels which are turned on in the source
+	 * placed at the given offset.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 */
+	public static void or(BWRaster dest, BWRaster src, int dx, int dy) {
+		apply(dest, src, dx, dy, CompositeOperation.OR);
+	}
+
+	/**
+	 * Turns off the destination pixels which are turned off in the source
+	 * placed at the top left corner.
+	 * @param dest destination raster
+	 * @param src source raster
+	 */
+	public static void and(BWRaster dest, BWRaster src) {
+		and(dest, src, 0, 0);
+	}
+
+	/**
+	 * Turns off the destination pixels which are turned off in the source
+	 * placed at the given offset.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 */
+	public static void and(BWRaster dest, BWRaster src, int dx, int dy) {
+		apply(dest, src, dx, dy, CompositeOperation.AND);
+	}
+
+	/**
+	 * Flips the destination pixels which are turned on in the source placed
+	 * at the top left corner.
+	 * @param dest destination raster
+	 * @param src source raster
+	 */
+	public static void xor(BWRaster dest, BWRaster src) {
+		xor(dest, src, 0, 0);
+	}
+
+	/**
+	 * Flips the destination pixels which are turned on in the source placed
+	 * at the given offset.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 */
+	public static void xor(BWRaster dest, BWRaster src, int dx, int dy) {
+		apply(dest, src, dx, dy, CompositeOperation.XOR);
+	}
+
+	/**
+	 * Turns off the destination pixels which are turned on in the source
+	 * placed at the top left corner.
+	 * @param dest destination raster
+	 * @param src source raster
+	 */
+	public static void andNot(BWRaster dest, BWRaster src) {
+		andNot(dest, src, 0, 0);
+	}
+
+	/**
+	 * Turns off the destination pixels which are turned on in the source
+	 * placed at the given offset.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 */
+	public static void andNot(BWRaster dest, BWRaster src, int dx, int dy) {
+		apply(dest, src, dx, dy, CompositeOperation.AND_NOT);
+	}
+
+	/**
+	 * Flips all the pixels of the raster.
+	 * @param raster raster
+	 */
+	public static void invert(BWRaster raster) {
+		int height = raster.getHeight();
+		if (raster instanceof BitPackedRaster) {
+			BitPackedRaster packed = (BitPackedRaster) raster;
+			int words = packed.getWordsPerRow();
+			for (int y = 0; y < height; ++y) {
+				for (int i = 0; i < words; ++i) {
+					packed.updateWord(y, i, -1L, -1L);
+				}
+			}
+		} else {
+			for (int y = 0; y < height; ++y) {
+				raster.flipSpan(y, 0, raster.getWidth());
+			}
+		}
+	}
+
+	/**
+	 * Applies the given operation to the part of the destination covered
+	 * by the source placed at the given offset.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 * @param operation operation
+	 */
+	private static void apply(BWRaster dest, BWRaster src, int dx, int dy, CompositeOperation operation) {
+		if (dest == null || src == null) {
+			throw new IllegalArgumentException("Rasters cannot be null.");
+		}
+		// covered part of the destination, from min (inclusive) to max (exclusive)
+		int minX = Math.max(dx, 0);
+		int minY = Math.max(dy, 0);
+		int maxX = (int) Math.min((long) dx + src.getWidth(), dest.getWidth());
+		int maxY = (int) Math.min((long) dy + src.getHeight(), dest.getHeight());
+		if (minX >= maxX || minY >= maxY) {
+			return;
+		}
+		if (dest instanceof BitPackedRaster && src instanceof BitPackedRaster) {
+			applyWords((BitPackedRaster) dest, (BitPackedRaster) src, dx, dy, minX, minY, maxX, maxY, operation);
+		} else {
+			applyPixels(dest, src, dx, dy, minX, minY, maxX, maxY, operation);
+		}
+	}
+
+	/**
+	 * Applies the given operation to the covered part of a bit-packed
+	 * destination, a whole word at a time, with a single update of each
+	 * destination word.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 * @param minX first covered destination column
+	 * @param minY first covered destination row
+	 * @param maxX column after the last covered one
+	 * @param maxY row after the last covered one
+	 * @param operation operation
+	 */
+	private static void applyWords(BitPackedRaster dest, BitPackedRaster src, int dx, int dy,
+			int minX, int minY, int maxX, int maxY, CompositeOperation operation) {
+		int first = minX >>> 6;
+		int last = (maxX - 1) >>> 6;
+		long firstMask = -1L << minX;
+		long lastMask = -1L >>> -maxX;
+		for (int y = minY; y < maxY; ++y) {
+			int srcY = y - dy;
+			for (int i = first; i <= last; ++i) {
+				long mask = -1L;
+				if (i == first) {
+					mask &= firstMask;
+				}
+				if (i == last) {
+					mask &= lastMask;
+				}
+				operation.updateWord(dest, y, i, sourceWord(src, srcY, ((long) i << 6) - dx), mask);
+			}
+		}
+	}
+
+	/**
+	 * Returns the 64 source pixels of the given row starting at the given
+	 * position, which need not be a multiple of 64. Pixels outside of the
+	 * source row are turned off.
+	 * @param src source raster
+	 * @param y position of the source row
+	 * @param x position of the first pixel, possibly outside of the row
+	 * @return word of the source pixels from x to x + 63
+	 */
+	private static long sourceWord(BitPackedRaster src, int y, long x) {
+		long index = x >> 6;
+		int shift = (int) (x & 63);
+		long low = wordOrZero(src, y, index);
+		if (shift == 0) {
+			return low;
+		}
+		return (low >>> shift) | (wordOrZero(src, y, index + 1) << (64 - shift));
+	}
+
+	/**
+	 * Returns the word with the given index in the given source row,
+	 * or zero if the index is out of bounds.
+	 * @param src source raster
+	 * @param y position of the source row
+	 * @param index index of the word, possibly out of bounds
+	 * @return word with the given index, or zero
+	 */
+	private static long wordOrZero(BitPackedRaster src, int y, long index) {
+		if (index < 0 || index >= src.getWordsPerRow()) {
+			return 0L;
+		}
+		return src.getWord(y, (int) index);
+	}
+
+	/**
+	 * Applies the given operation to the covered part of any destination,
+	 * one pixel at a time, flipping each run of pixels which change.
+	 * @param dest destination raster
+	 * @param src source raster
+	 * @param dx position of the source left edge on the destination
+	 * @param dy position of the source top edge on the destination
+	 * @param minX first covered destination column
+	 * @param minY first covered destination row
+	 * @param maxX column after the last covered one
+	 * @param maxY row after the last covered one
+	 * @param operation operation
+	 */
+	private static void applyPixels(BWRaster dest, BWRaster src, int dx, int dy,
+			int minX, int minY, int maxX, int maxY, CompositeOperation operation) {
+		for (int y = minY; y < maxY; ++y) {
+			int runStart = -1;
+			for (int x = minX; x < maxX; ++x) {
+				long pixel = dest.isTurnedOn(x, y) ? 1L : 0L;
+				long srcPixel = src.isTurnedOn(x - dx, y - dy) ? 1L : 0L;
+				boolean changes = (operation.apply(pixel, srcPixel) & 1L) != pixel;
+				if (changes && runStart < 0) {
+					runStart = x;
+				} else if (!changes && runStart >= 0) {
+					dest.flipSpan(y, runStart, x);
+					runStart = -1;
+				}
+			}
+			if (runStart >= 0) {
+				dest.flipSpan(y, runStart, maxX);
+			}
+		}
+	}
+
+}
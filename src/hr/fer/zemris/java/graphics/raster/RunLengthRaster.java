@@ -0,0 +1,116 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import java.util.Arrays;
+
+/**
+ * Raster which stores each row as a sorted list of runs of pixels which are
+ * turned on. Runs of a row don't overlap and don't touch each other, so the
+ * pixels between two consecutive runs are always turned off. Views and other
+ * tools can iterate over the runs in order to skip empty parts of the raster.
+ * 
+ * @author labramusic
+ *
+ */
+public interface RunLengthRaster extends BWRaster {
+
+	/**
+	 * Returns the number of runs in the given row. Throws
+	 * IllegalArgumentException if the row is out of bounds.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @return number of runs in the row
+	 */
+	int getRunCount(int y);
+
+	/**
+	 * Returns the position of the first pixel of the run with the given
+	 * index in the given row. Throws IllegalArgumentException if the row or
+	 * the index is out of bounds.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param index
+	 *            index of the run, from 0 to the run count minus 1
+	 * @return starting position of the run at x axis, inclusive
+	 */
+	int getRunStart(int y, int index);
+
+	/**
+	 * Returns the position after the last pixel of the run with the given
+	 * index in the given row. Throws IllegalArgumentException if the row or
+	 * the index is out of bounds.
+	 * 
+	 * @param y
+	 *            position of the row at y axis
+	 * @param index
+	 *            index of the run, from 0 to the run count minus 1
+	 * @return ending position of the run at x axis, exclusive
+	 */
+	int getRunEnd(int y, int index);
+
+	/**
+	 * Counts the pixels turned on inside of the region by adding up the
+	 * parts of the runs which overlap it.
+	 */
+	@Override
+	default long cardinality(BoundingBox region) {
+		if (region == null) {
+			throw new IllegalArgumentException("Region cannot be null.");
+		}
+		BoundingBox clip = region.intersection(BoundingBox.of(this));
+		if (clip == null) {
+			return 0;
+		}
+		int x0 = clip.getMinX();
+		int x1 = clip.getMaxX() + 1;
+		long count = 0;
+		for (int y = clip.getMinY(); y <= clip.getMaxY(); ++y) {
+			for (int i = 0, runs = getRunCount(y); i < runs; ++i) {
+				int start = Math.max(getRunStart(y, i), x0);
+				int end = Math.min(getRunEnd(y, i), x1);
+				if (start < end) {
+					count += end - start;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Counts the pixels turned on in each row by adding up the lengths
+	 * of its runs.
+	 */
+	@Override
+	default int[] rowCounts() {
+		int[] counts = new int[getHeight()];
+		for (int y = 0; y < counts.length; ++y) {
+			for (int i = 0, runs = getRunCount(y); i < runs; ++i) {
+				counts[y] += getRunEnd(y, i) - getRunStart(y, i);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts the pixels turned on in each column by marking only where each
+	 * run starts and ends, and then adding up the marks from left to right.
+	 */
+	@Override
+	default int[] columnCounts() {
+		int width = getWidth();
+		int height = getHeight();
+		int[] counts = new int[width + 1];
+		for (int y = 0; y < height; ++y) {
+			for (int i = 0, runs = getRunCount(y); i < runs; ++i) {
+				++counts[getRunStart(y, i)];
+				--counts[getRunEnd(y, i)];
+			}
+		}
+		for (int x = 1; x < width; ++x) {
+			counts[x] += counts[x - 1];
+		}
+		return Arrays.copyOf(counts, width);
+	}
+
+}
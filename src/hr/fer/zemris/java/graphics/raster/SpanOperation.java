@@ -0,0 +1,118 @@
+package hr.fer.zemris.java.graphics.raster;
+
+/**
+ * Operation applied to the pixels of a span of a raster row. For rasters
+ * which pack 64 pixels into each long word of a row, the operation splits
+ * the span into the masks of the words it covers, so that each raster only
+ * has to apply a mask to a word of its own storage.
+ *
+ * @author labramusic
+ *
+ */
+enum SpanOperation {
+
+	/**
+	 * Turns pixels on.
+	 */
+	SET,
+
+	/**
+	 * Turns pixels off.
+	 */
+	CLEAR,
+
+	/**
+	 * Flips pixels.
+	 */
+	FLIP;
+
+	/**
+	 * Returns the operation which fills a span in the given flip mode.
+	 * @param flipMode true if flip mode is enabled
+	 * @return FLIP if flip mode is enabled, SET otherwise
+	 */
+	static SpanOperation fill(boolean flipMode) {
+		return flipMode ? FLIP : SET;
+	}
+
+	/**
+	 * Throws IllegalArgumentException if the span of the row y from x0
+	 * (inclusive) to x1 (exclusive) is not inside of a raster of the given
+	 * dimensions.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param width raster width
+	 * @param height raster height
+	 */
+	static void checkSpan(int y, int x0, int x1, int width, int height) {
+		if (y < 0 || y > height - 1 || x0 < 0 || x1 < x0 || x1 > width) {
+			throw new IllegalArgumentException("Given span is out of bounds.");
+		}
+	}
+
+	/**
+	 * Applies the operation to the bits of the word which are set
+	 * in the mask.
+	 * @param word word
+	 * @param mask bits to be changed
+	 * @return changed word
+	 */
+	long apply(long word, long mask) {
+		switch (this) {
+		case SET:
+			return word | mask;
+		case CLEAR:
+			return word & ~mask;
+		default:
+			return word ^ mask;
+		}
+	}
+
+	/**
+	 * Applies the operation to the pixels of the row y in the non-empty span
+	 * from x0 (inclusive) to x1 (exclusive), a whole word at a time. The mask
+	 * of the bits in the span is computed for each word the span covers, and
+	 * passed to the writer together with the index of the word in the row.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 * @param writer writer which applies the masks to the words
+	 */
+	void applySpan(int y, int x0, int x1, MaskWriter writer) {
+		int first = x0 >>> 6;
+		int last = (x1 - 1) >>> 6;
+		long firstMask = -1L << x0;
+		long lastMask = -1L >>> -x1;
+		if (first == last) {
+			writer.applyMask(y, first, firstMask & lastMask, this);
+			return;
+		}
+		writer.applyMask(y, first, firstMask, this);
+		for (int i = first + 1; i < last; ++i) {
+			writer.applyMask(y, i, -1L, this);
+		}
+		writer.applyMask(y, last, lastMask, this);
+	}
+
+	/**
+	 * Applies an operation to a word of the storage of a raster.
+	 *
+	 * @author labramusic
+	 *
+	 */
+	interface MaskWriter {
+
+		/**
+		 * Applies the operation to the bits of the word which are set
+		 * in the mask.
+		 * @param y position of the row containing the word
+		 * @param index index of the word in the row
+		 * @param mask bits to be changed
+		 * @param operation operation
+		 */
+		void applyMask(int y, int index, long mask, SpanOperation operation);
+
+	}
+
+}
@@ -0,0 +1,54 @@
+package hr.fer.zemris.java.graphics.render;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.shapes.SpanSink;
+
+/**
+ * Sink used by a single rendering task, which draws the received spans on
+ * the underlying raster according to its own flip mode. The flip mode of the
+ * underlying raster must be disabled while it is drawn on through this sink.
+ * 
+ * @author labramusic
+ *
+ */
+class BandSink implements SpanSink {
+
+	/**
+	 * Underlying raster.
+	 */
+	private BWRaster raster;
+
+	/**
+	 * Flip mode.
+	 */
+	private boolean flipMode;
+
+	/**
+	 * Constructor which accepts the underlying raster.
+	 * @param raster underlying raster
+	 */
+	public BandSink(BWRaster raster) {
+		this.raster = raster;
+	}
+
+	/**
+	 * Enables the flip mode.
+	 */
+	public void enableFlipMode() {
+		flipMode = true;
+	}
+
+	/**
+	 * Turns on the pixels of the span, or flips them if the flip mode
+	 * is enabled.
+	 */
+	@Override
+	public void addSpan(int y, int x0, int x1) {
+		if (flipMode) {
+			raster.flipSpan(y, x0, x1);
+		} else {
+			raster.fillSpan(y, x0, x1);
+		}
+	}
+
+}
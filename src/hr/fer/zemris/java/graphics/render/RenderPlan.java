@@ -0,0 +1,229 @@
+package hr.fer.zemris.java.graphics.render;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+
+/**
+ * Precomputed list of the pixel spans drawn by a shape, relative to the
+ * starting coordinates of the shape. A plan depends only on the geometry of
+ * the shape, so once compiled it can be stamped on a raster at any position,
+ * which draws the same pixels as the shape moved to that position would,
+ * without evaluating the shape again. Plans are unmodifiable.
+ *
+ * @author labramusic
+ *
+ */
+public class RenderPlan {
+
+	/**
+	 * Bounds of the plan, relative to the starting coordinates of the shape.
+	 */
+	private BoundingBox bounds;
+
+	/**
+	 * Index of the first span of each row of the bounds, followed by the
+	 * total number of spans.
+	 */
+	private int[] rowOffsets;
+
+	/**
+	 * Starting positions of the spans, inclusive, relative to the starting
+	 * x coordinate of the shape.
+	 */
+	private int[] starts;
+
+	/**
+	 * Ending positions of the spans, exclusive, relative to the starting
+	 * x coordinate of the shape.
+	 */
+	private int[] ends;
+
+	/**
+	 * Constructor which accepts the relative bounds, row offsets and spans.
+	 * @param bounds relative bounds
+	 * @param rowOffsets index of the first span of each row
+	 * @param starts relative starting positions of the spans
+	 * @param ends relative ending positions of the spans
+	 */
+	private RenderPlan(BoundingBox bounds, int[] rowOffsets, int[] starts, int[] ends) {
+		this.bounds = bounds;
+		this.rowOffsets = rowOffsets;
+		this.starts = starts;
+		this.ends = ends;
+	}
+
+	/**
+	 * Compiles the plan of the given shape by recording the spans it emits.
+	 * A shape without any points compiles to an empty plan.
+	 * @param shape shape
+	 * @return plan of the shape
+	 */
+	public static RenderPlan compile(GeometricShape shape) {
+		if (shape == null) {
+			throw new IllegalArgumentException("Shape cannot be null.");
+		}
+		BoundingBox area = shape.getBounds();
+		if (area == null) {
+			return new RenderPlan(null, new int[1], new int[0], new int[0]);
+		}
+		SpanRecorder recorder = new SpanRecorder(area);
+		shape.emitSpans(recorder, area);
+
+		int rows = recorder.getRowCount();
+		int[] rowOffsets = new int[rows + 1];
+		for (int i = 0; i < rows; ++i) {
+			rowOffsets[i + 1] = rowOffsets[i] + recorder.getSpanCount(area.getMinY() + i);
+		}
+		int[] starts = new int[rowOffsets[rows]];
+		int[] ends = new int[rowOffsets[rows]];
+		for (int i = 0; i < rows; ++i) {
+			int[] spans = recorder.getSpans(area.getMinY() + i);
+			for (int j = rowOffsets[i]; j < rowOffsets[i + 1]; ++j) {
+				int k = j - rowOffsets[i];
+				starts[j] = spans[2 * k] - shape.getX();
+				ends[j] = spans[2 * k + 1] - shape.getX();
+			}
+		}
+		BoundingBox bounds = new BoundingBox(area.getMinX() - shape.getX(), area.getMinY() - shape.getY(),
+				area.getMaxX() - shape.getX(), area.getMaxY() - shape.getY());
+		return new RenderPlan(bounds, rowOffsets, starts, ends);
+	}
+
+	/**
+	 * Returns the bounds of the plan, relative to the starting coordinates
+	 * of the shape, or null if the plan is empty.
+	 * @return relative bounds, or null
+	 */
+	public BoundingBox getBounds() {
+		return bounds;
+	}
+
+	/**
+	 * Returns the number of spans in the plan.
+	 * @return number of spans
+	 */
+	public int getSpanCount() {
+		return starts.length;
+	}
+
+	/**
+	 * Draws the plan on the whole raster as if the shape was positioned at
+	 * the given starting coordinates.
+	 * @param r raster to draw on
+	 * @param x starting x coordinate of the shape
+	 * @param y starting y coordinate of the shape
+	 */
+	public void stamp(BWRaster r, int x, int y) {
+		stamp(r, x, y, BoundingBox.of(r));
+	}
+
+	/**
+	 * Draws only the part of the plan which lies inside of the given clip
+	 * region, as if the shape was positioned at the given starting
+	 * coordinates. The clip region must be inside of the raster.
+	 * @param r raster to draw on
+	 * @param x starting x coordinate of the shape
+	 * @param y starting y coordinate of the shape
+	 * @param clip region of the raster which can be drawn on
+	 */
+	public void stamp(BWRaster r, int x, int y, BoundingBox clip) {
+		if (bounds == null) {
+			return;
+		}
+		if (isInside(x, y, clip)) {
+			stampInside(r, x, y);
+		} else {
+			stampClipped(r, x, y, clip);
+		}
+	}
+
+	/**
+	 * Draws the plan on the whole raster once for each of the given
+	 * positions, as if the shape was positioned at each of them in turn.
+	 * @param r raster to draw on
+	 * @param positions starting coordinates of the shape instances,
+	 *            as x and y coordinate pairs
+	 */
+	public void stampAll(BWRaster r, int[] positions) {
+		stampAll(r, positions, BoundingBox.of(r));
+	}
+
+	/**
+	 * Draws the part of the plan which lies inside of the given clip region
+	 * once for each of the given positions, as if the shape was positioned at
+	 * each of them in turn. Each instance is clipped once, and instances
+	 * completely inside of the clip region are drawn without clipping their
+	 * spans. The clip region must be inside of the raster.
+	 * @param r raster to draw on
+	 * @param positions starting coordinates of the shape instances,
+	 *            as x and y coordinate pairs
+	 * @param clip region of the raster which can be drawn on
+	 */
+	public void stampAll(BWRaster r, int[] positions, BoundingBox clip) {
+		if (positions == null || positions.length % 2 != 0) {
+			throw new IllegalArgumentException("Positions must be given as x and y coordinate pairs.");
+		}
+		for (int i = 0; i < positions.length; i += 2) {
+			stamp(r, positions[i], positions[i + 1], clip);
+		}
+	}
+
+	/**
+	 * Checks if the plan positioned at the given starting coordinates lies
+	 * completely inside of the clip region.
+	 * @param x starting x coordinate of the shape
+	 * @param y starting y coordinate of the shape
+	 * @param clip clip region
+	 * @return true if the plan is inside of the clip region
+	 */
+	private boolean isInside(int x, int y, BoundingBox clip) {
+		return (long) x + bounds.getMinX() >= clip.getMinX() && (long) x + bounds.getMaxX() <= clip.getMaxX()
+				&& (long) y + bounds.getMinY() >= clip.getMinY() && (long) y + bounds.getMaxY() <= clip.getMaxY();
+	}
+
+	/**
+	 * Draws all the spans of the plan positioned at the given starting
+	 * coordinates, which must lie inside of the raster.
+	 * @param r raster to draw on
+	 * @param x starting x coordinate of the shape
+	 * @param y starting y coordinate of the shape
+	 */
+	private void stampInside(BWRaster r, int x, int y) {
+		int row = y + bounds.getMinY();
+		for (int i = 0, rows = rowOffsets.length - 1; i < rows; ++i, ++row) {
+			for (int j = rowOffsets[i], end = rowOffsets[i + 1]; j < end; ++j) {
+				r.fillSpan(row, x + starts[j], x + ends[j]);
+			}
+		}
+	}
+
+	/**
+	 * Draws the parts of the spans of the plan positioned at the given
+	 * starting coordinates which lie inside of the clip region.
+	 * @param r raster to draw on
+	 * @param x starting x coordinate of the shape
+	 * @param y starting y coordinate of the shape
+	 * @param clip region of the raster which can be drawn on
+	 */
+	private void stampClipped(BWRaster r, int x, int y, BoundingBox clip) {
+		long firstRow = Math.max((long) clip.getMinY() - y, bounds.getMinY());
+		long lastRow = Math.min((long) clip.getMaxY() - y, bounds.getMaxY());
+		long minX = (long) clip.getMinX() - x;
+		long maxX = (long) clip.getMaxX() + 1 - x;
+		if (firstRow > lastRow || minX > bounds.getMaxX() || maxX <= bounds.getMinX()) {
+			return;
+		}
+		for (int row = (int) firstRow; row <= lastRow; ++row) {
+			int i = row - bounds.getMinY();
+			for (int j = rowOffsets[i], end = rowOffsets[i + 1]; j < end; ++j) {
+				int x0 = (int) Math.max(starts[j], minX);
+				int x1 = (int) Math.min(ends[j], maxX);
+				if (x0 < x1) {
+					r.fillSpan(y + row, x + x0, x + x1);
+				}
+			}
+		}
+	}
+
+}
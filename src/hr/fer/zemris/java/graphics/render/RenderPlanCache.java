@@ -0,0 +1,189 @@
+package hr.fer.zemris.java.graphics.render;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.ShapeGeometry;
+
+/**
+ * Cache of render plans, keyed by the geometry of the shapes they were
+ * compiled from. Shapes of the same type and dimensions share a single plan,
+ * regardless of their position, so drawing the same geometry repeatedly
+ * compiles it only once. When the cache is full, the least recently used
+ * plan is discarded. The cache can be used by many threads at once.
+ *
+ * @author labramusic
+ *
+ */
+public class RenderPlanCache {
+
+	/**
+	 * Default maximum number of cached plans.
+	 */
+	private final static int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * Maximum number of cached plans.
+	 */
+	private int capacity;
+
+	/**
+	 * Cached plans, from the least to the most recently used.
+	 */
+	private Map<ShapeGeometry, RenderPlan> plans;
+
+	/**
+	 * Number of plans found in the cache.
+	 */
+	private long hits;
+
+	/**
+	 * Number of plans which had to be compiled.
+	 */
+	private long misses;
+
+	/**
+	 * Constructor which accepts the maximum number of cached plans,
+	 * which must be at least 1.
+	 * @param capacity maximum number of cached plans
+	 */
+	public RenderPlanCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Cache capacity must be at least 1.");
+		}
+		this.capacity = capacity;
+		plans = new LinkedHashMap<ShapeGeometry, RenderPlan>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ShapeGeometry, RenderPlan> eldest) {
+				return size() > RenderPlanCache.this.capacity;
+			}
+
+		};
+	}
+
+	/**
+	 * Default constructor which caches up to 256 plans.
+	 */
+	public RenderPlanCache() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Returns the plan of the given shape, compiling it first if no
+	 * plan for its geometry is cached.
+	 * @param shape shape
+	 * @return plan of the shape
+	 */
+	public synchronized RenderPlan getPlan(GeometricShape shape) {
+		if (shape == null) {
+			throw new IllegalArgumentException("Shape cannot be null.");
+		}
+		ShapeGeometry geometry = shape.getGeometry();
+		RenderPlan plan = plans.get(geometry);
+		if (plan != null) {
+			++hits;
+			return plan;
+		}
+		++misses;
+		plan = RenderPlan.compile(shape);
+		plans.put(geometry, plan);
+		return plan;
+	}
+
+	/**
+	 * Draws the given shape on the whole raster using its cached plan.
+	 * @param shape shape to draw
+	 * @param r raster to draw the shape on
+	 */
+	public void draw(GeometricShape shape, BWRaster r) {
+		draw(shape, r, BoundingBox.of(r));
+	}
+
+	/**
+	 * Draws only the part of the given shape which lies inside of the given
+	 * clip region using its cached plan. The clip region must be inside of
+	 * the raster.
+	 * @param shape shape to draw
+	 * @param r raster to draw the shape on
+	 * @param clip region of the raster which can be drawn on
+	 */
+	public void draw(GeometricShape shape, BWRaster r, BoundingBox clip) {
+		getPlan(shape).stamp(r, shape.getX(), shape.getY(), clip);
+	}
+
+	/**
+	 * Draws an instance of the given template shape on the whole raster at
+	 * each of the given positions, using the cached plan of the template.
+	 * The position of the template itself is ignored.
+	 * @param template shape whose geometry is drawn
+	 * @param r raster to draw the instances on
+	 * @param positions starting coordinates of the instances,
+	 *            as x and y coordinate pairs
+	 */
+	public void drawAll(GeometricShape template, BWRaster r, int[] positions) {
+		drawAll(template, r, positions, BoundingBox.of(r));
+	}
+
+	/**
+	 * Draws the part of an instance of the given template shape which lies
+	 * inside of the given clip region at each of the given positions, using
+	 * the cached plan of the template. The position of the template itself is
+	 * ignored, and the clip region must be inside of the raster.
+	 * @param template shape whose geometry is drawn
+	 * @param r raster to draw the instances on
+	 * @param positions starting coordinates of the instances,
+	 *            as x and y coordinate pairs
+	 * @param clip region of the raster which can be drawn on
+	 */
+	public void drawAll(GeometricShape template, BWRaster r, int[] positions, BoundingBox clip) {
+		getPlan(template).stampAll(r, positions, clip);
+	}
+
+	/**
+	 * Returns the maximum number of cached plans.
+	 * @return cache capacity
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of currently cached plans.
+	 * @return number of cached plans
+	 */
+	public synchronized int size() {
+		return plans.size();
+	}
+
+	/**
+	 * Returns the number of times a plan was found in the cache.
+	 * @return number of cache hits
+	 */
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of times a plan had to be compiled.
+	 * @return number of cache misses
+	 */
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Discards all the cached plans and resets the counters.
+	 */
+	public synchronized void clear() {
+		plans.clear();
+		hits = 0;
+		misses = 0;
+	}
+
+}
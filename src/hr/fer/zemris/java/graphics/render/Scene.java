@@ -0,0 +1,405 @@
+package hr.fer.zemris.java.graphics.render;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.ShapeListener;
+
+/**
+ * Ordered collection of shapes with a spatial index, which finds the shapes
+ * covering a point or intersecting a region without checking every shape.
+ * The plane is divided into a uniform grid of square cells, and each shape is
+ * indexed in every cell its bounds intersect. Shapes covering too many cells
+ * are kept in a separate list which is checked by every query instead.
+ * <p>
+ * The scene listens to the changes of its shapes, so shapes moved through
+ * {@link GeometricShape#setX(int)} and {@link GeometricShape#setY(int)} or
+ * resized through their setters are reindexed immediately. Query results and
+ * rendering follow the order in which the shapes were added. A scene should
+ * be used by a single thread.
+ *
+ * @author labramusic
+ *
+ */
+public class Scene {
+
+	/**
+	 * Default width and height of a grid cell.
+	 */
+	private final static int DEFAULT_CELL_SIZE = 64;
+
+	/**
+	 * Largest number of cells a shape is indexed in.
+	 */
+	private final static int MAX_CELLS_PER_SHAPE = 256;
+
+	/**
+	 * Width and height of a grid cell.
+	 */
+	private int cellSize;
+
+	/**
+	 * Entries of the shapes, in the order the shapes were added.
+	 */
+	private Map<GeometricShape, Entry> entries;
+
+	/**
+	 * Entries indexed in each grid cell, keyed by the cell row and column.
+	 */
+	private Map<Long, List<Entry>> cells;
+
+	/**
+	 * Entries of the shapes covering too many cells to be indexed.
+	 */
+	private List<Entry> oversized;
+
+	/**
+	 * Sequence number of the next added shape.
+	 */
+	private long nextSequence;
+
+	/**
+	 * Number of the current query, used for visiting each entry only once.
+	 */
+	private int query;
+
+	/**
+	 * Listener which reindexes the changed shapes.
+	 */
+	private ShapeListener listener;
+
+	/**
+	 * Constructor which accepts the width and height of a grid cell,
+	 * which must be at least 1. The cells should be about as large as
+	 * the typical shape.
+	 * @param cellSize width and height of a grid cell
+	 */
+	public Scene(int cellSize) {
+		if (cellSize < 1) {
+			throw new IllegalArgumentException("Cell size must be at least 1.");
+		}
+		this.cellSize = cellSize;
+		entries = new LinkedHashMap<>();
+		cells = new HashMap<>();
+		oversized = new ArrayList<>();
+		listener = shape -> {
+			Entry entry = entries.get(shape);
+			unindex(entry);
+			index(entry);
+		};
+	}
+
+	/**
+	 * Default constructor which uses grid cells of 64x64 pixels.
+	 */
+	public Scene() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Adds the shape at the end of the scene. Throws IllegalArgumentException
+	 * if the shape is null or already in the scene.
+	 * @param shape shape
+	 */
+	public void add(GeometricShape shape) {
+		if (shape == null) {
+			throw new IllegalArgumentException("Shape cannot be null.");
+		}
+		if (entries.containsKey(shape)) {
+			throw new IllegalArgumentException("Shape is already in the scene.");
+		}
+		Entry entry = new Entry(shape, nextSequence++);
+		entries.put(shape, entry);
+		index(entry);
+		shape.addListener(listener);
+	}
+
+	/**
+	 * Removes the shape from the scene.
+	 * @param shape shape
+	 * @return true if the shape was in the scene
+	 */
+	public boolean remove(GeometricShape shape) {
+		Entry entry = entries.remove(shape);
+		if (entry == null) {
+			return false;
+		}
+		shape.removeListener(listener);
+		unindex(entry);
+		return true;
+	}
+
+	/**
+	 * Checks if the shape is in the scene.
+	 * @param shape shape
+	 * @return true if the shape is in the scene
+	 */
+	public boolean contains(GeometricShape shape) {
+		return entries.containsKey(shape);
+	}
+
+	/**
+	 * Returns the number of shapes in the scene.
+	 * @return number of shapes
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Returns all the shapes of the scene, in the order they were added.
+	 * @return unmodifiable list of the shapes
+	 */
+	public List<GeometricShape> getShapes() {
+		return Collections.unmodifiableList(new ArrayList<>(entries.keySet()));
+	}
+
+	/**
+	 * Returns the shapes which contain the given point.
+	 * @param x x coordinate of the point
+	 * @param y y coordinate of the point
+	 * @return shapes containing the point, in the order they were added
+	 */
+	public List<GeometricShape> shapesAt(int x, int y) {
+		List<Entry> found = new ArrayList<>();
+		List<Entry> cell = cells.get(cellKey(cellOf(y), cellOf(x)));
+		if (cell != null) {
+			for (Entry entry : cell) {
+				if (entry.shape.containsPoint(x, y)) {
+					found.add(entry);
+				}
+			}
+		}
+		for (Entry entry : oversized) {
+			if (entry.shape.containsPoint(x, y)) {
+				found.add(entry);
+			}
+		}
+		return toShapes(found);
+	}
+
+	/**
+	 * Returns the shapes whose bounds intersect the given region.
+	 * @param region region
+	 * @return shapes intersecting the region, in the order they were added
+	 */
+	public List<GeometricShape> shapesIntersecting(BoundingBox region) {
+		if (region == null) {
+			throw new IllegalArgumentException("Region cannot be null.");
+		}
+		++query;
+		List<Entry> found = new ArrayList<>();
+		int minRow = cellOf(region.getMinY());
+		int maxRow = cellOf(region.getMaxY());
+		int minColumn = cellOf(region.getMinX());
+		int maxColumn = cellOf(region.getMaxX());
+		long regionCells = ((long) maxRow - minRow + 1) * ((long) maxColumn - minColumn + 1);
+		if (regionCells > cells.size()) {
+			// fewer occupied cells than cells in the region
+			for (List<Entry> cell : cells.values()) {
+				collect(cell, region, found);
+			}
+		} else {
+			for (int row = minRow; row <= maxRow; ++row) {
+				for (int column = minColumn; column <= maxColumn; ++column) {
+					List<Entry> cell = cells.get(cellKey(row, column));
+					if (cell != null) {
+						collect(cell, region, found);
+					}
+				}
+			}
+		}
+		collect(oversized, region, found);
+		return toShapes(found);
+	}
+
+	/**
+	 * Draws the shapes of the scene on the raster in the order they were
+	 * added, skipping the shapes which lie completely outside of the raster.
+	 * @param r raster to draw the shapes on
+	 */
+	public void render(BWRaster r) {
+		for (GeometricShape shape : shapesIntersecting(BoundingBox.of(r))) {
+			shape.draw(r);
+		}
+	}
+
+	/**
+	 * Adds the entries of the list whose bounds intersect the region and
+	 * which were not yet visited by the current query.
+	 * @param list entries to check
+	 * @param region region
+	 * @param found list the entries are added to
+	 */
+	private void collect(List<Entry> list, BoundingBox region, List<Entry> found) {
+		for (Entry entry : list) {
+			if (entry.query != query) {
+				entry.query = query;
+				if (entry.bounds.intersects(region)) {
+					found.add(entry);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sorts the entries by the order their shapes were added,
+	 * and returns the shapes.
+	 * @param found entries
+	 * @return shapes of the entries
+	 */
+	private static List<GeometricShape> toShapes(List<Entry> found) {
+		found.sort((first, second) -> Long.compare(first.sequence, second.sequence));
+		List<GeometricShape> shapes = new ArrayList<>(found.size());
+		for (Entry entry : found) {
+			shapes.add(entry.shape);
+		}
+		return shapes;
+	}
+
+	/**
+	 * Adds the entry to the cells intersected by the current bounds of its
+	 * shape, or to the oversized entries if there are too many such cells.
+	 * Shapes without any points are not indexed at all.
+	 * @param entry entry
+	 */
+	private void index(Entry entry) {
+		BoundingBox bounds = entry.shape.getBounds();
+		entry.bounds = bounds;
+		if (bounds == null) {
+			return;
+		}
+		entry.minRow = cellOf(bounds.getMinY());
+		entry.maxRow = cellOf(bounds.getMaxY());
+		entry.minColumn = cellOf(bounds.getMinX());
+		entry.maxColumn = cellOf(bounds.getMaxX());
+		long count = ((long) entry.maxRow - entry.minRow + 1) * ((long) entry.maxColumn - entry.minColumn + 1);
+		entry.oversized = count > MAX_CELLS_PER_SHAPE;
+		if (entry.oversized) {
+			oversized.add(entry);
+			return;
+		}
+		for (int row = entry.minRow; row <= entry.maxRow; ++row) {
+			for (int column = entry.minColumn; column <= entry.maxColumn; ++column) {
+				cells.computeIfAbsent(cellKey(row, column), key -> new ArrayList<>()).add(entry);
+			}
+		}
+	}
+
+	/**
+	 * Removes the entry from the cells it was indexed in.
+	 * @param entry entry
+	 */
+	private void unindex(Entry entry) {
+		if (entry.bounds == null) {
+			return;
+		}
+		if (entry.oversized) {
+			oversized.remove(entry);
+			return;
+		}
+		for (int row = entry.minRow; row <= entry.maxRow; ++row) {
+			for (int column = entry.minColumn; column <= entry.maxColumn; ++column) {
+				Long key = cellKey(row, column);
+				List<Entry> cell = cells.get(key);
+				cell.remove(entry);
+				if (cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the row or column of the cell containing the given coordinate.
+	 * @param coordinate x or y coordinate
+	 * @return row or column of the cell
+	 */
+	private int cellOf(int coordinate) {
+		return Math.floorDiv(coordinate, cellSize);
+	}
+
+	/**
+	 * Returns the key of the cell in the given row and column.
+	 * @param row row of the cell
+	 * @param column column of the cell
+	 * @return key of the cell
+	 */
+	private static Long cellKey(int row, int column) {
+		return ((long) row << 32) | (column & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Shape of the scene with the cells it is indexed in.
+	 *
+	 * @author labramusic
+	 *
+	 */
+	private static class Entry {
+
+		/**
+		 * Shape.
+		 */
+		private GeometricShape shape;
+
+		/**
+		 * Order in which the shape was added.
+		 */
+		private long sequence;
+
+		/**
+		 * Bounds of the shape when it was indexed, or null if the shape
+		 * had no points and was not indexed.
+		 */
+		private BoundingBox bounds;
+
+		/**
+		 * First row of the cells the shape is indexed in.
+		 */
+		private int minRow;
+
+		/**
+		 * Last row of the cells the shape is indexed in.
+		 */
+		private int maxRow;
+
+		/**
+		 * First column of the cells the shape is indexed in.
+		 */
+		private int minColumn;
+
+		/**
+		 * Last column of the cells the shape is indexed in.
+		 */
+		private int maxColumn;
+
+		/**
+		 * True if the shape covers too many cells to be indexed.
+		 */
+		private boolean oversized;
+
+		/**
+		 * Number of the last query which visited the entry.
+		 */
+		private int query;
+
+		/**
+		 * Constructor which accepts the shape and its sequence number.
+		 * @param shape shape
+		 * @param sequence order in which the shape was added
+		 */
+		public Entry(GeometricShape shape, long sequence) {
+			this.shape = shape;
+			this.sequence = sequence;
+		}
+
+	}
+
+}
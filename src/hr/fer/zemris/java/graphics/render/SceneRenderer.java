@@ -0,0 +1,185 @@
+package hr.fer.zemris.java.graphics.render;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+
+/**
+ * Draws a sequence of geometric shapes on a raster in parallel. The raster is
+ * split into horizontal bands which are rendered as separate tasks of a fork
+ * join pool, and each task draws only the shapes whose bounds intersect its
+ * band. A null element in the sequence enables the flip mode, just like the
+ * FLIP command of the {@link hr.fer.zemris.java.graphics.Demo} program. Each
+ * band keeps its own flip mode and goes through the whole sequence in order,
+ * so the result is identical to drawing the shapes one after another.
+ * <p>
+ * The raster must allow different rows to be modified concurrently, which
+ * is true for in-memory rasters of the
+ * {@link hr.fer.zemris.java.graphics.raster} package.
+ * 
+ * @author labramusic
+ *
+ */
+public class SceneRenderer {
+
+	/**
+	 * Height of the smallest band of raster rows rendered by a single task.
+	 * Band boundaries are always multiples of this height.
+	 */
+	private final static int MIN_BAND_HEIGHT = 64;
+
+	/**
+	 * Number of bands per worker thread, so that the work can be balanced
+	 * between threads.
+	 */
+	private final static int BANDS_PER_THREAD = 4;
+
+	/**
+	 * Pool which executes rendering tasks.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * Constructor which sets the pool used for executing rendering tasks.
+	 * @param pool fork join pool
+	 */
+	public SceneRenderer(ForkJoinPool pool) {
+		if (pool == null) {
+			throw new IllegalArgumentException("Pool cannot be null.");
+		}
+		this.pool = pool;
+	}
+
+	/**
+	 * Default constructor which renders using the common fork join pool.
+	 */
+	public SceneRenderer() {
+		this(ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Draws the given shapes on the raster in their order, skipping the shapes
+	 * without any points. A null element
+	 * enables the flip mode, which is disabled when rendering starts. After
+	 * rendering, the flip mode of the raster is left in the state the sequence
+	 * ended with.
+	 * @param raster raster to draw the shapes on
+	 * @param shapes shapes to be drawn, with null elements enabling the flip mode
+	 */
+	public void render(BWRaster raster, GeometricShape[] shapes) {
+		if (raster == null || shapes == null) {
+			throw new IllegalArgumentException("Arguments cannot be null.");
+		}
+		BoundingBox[] bounds = new BoundingBox[shapes.length];
+		boolean flip = false;
+		for (int i = 0; i < shapes.length; ++i) {
+			if (shapes[i] == null) {
+				flip = true;
+			} else {
+				bounds[i] = shapes[i].getBounds();
+			}
+		}
+
+		int height = raster.getHeight();
+		int bands = Math.max(1, pool.getParallelism() * BANDS_PER_THREAD);
+		int bandHeight = (height + bands - 1) / bands;
+		bandHeight = (bandHeight + MIN_BAND_HEIGHT - 1) / MIN_BAND_HEIGHT * MIN_BAND_HEIGHT;
+		bands = (height + bandHeight - 1) / bandHeight;
+
+		raster.disableFlipMode();
+		pool.invoke(new BandTask(raster, shapes, bounds, bandHeight, 0, bands));
+		if (flip) {
+			raster.enableFlipMode();
+		}
+	}
+
+	/**
+	 * Task which renders a range of bands, splitting it in half
+	 * while it contains more than one band.
+	 * 
+	 * @author labramusic
+	 *
+	 */
+	private static class BandTask extends RecursiveAction {
+
+		/**
+		 * Serial version UID.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Raster to draw the shapes on.
+		 */
+		private BWRaster raster;
+
+		/**
+		 * Shapes to be drawn.
+		 */
+		private GeometricShape[] shapes;
+
+		/**
+		 * Bounds of the shapes.
+		 */
+		private BoundingBox[] bounds;
+
+		/**
+		 * Height of a single band.
+		 */
+		private int bandHeight;
+
+		/**
+		 * Index of the first band, inclusive.
+		 */
+		private int fromBand;
+
+		/**
+		 * Index of the last band, exclusive.
+		 */
+		private int toBand;
+
+		/**
+		 * Constructor which initializes the task with the range of bands.
+		 * @param raster raster to draw the shapes on
+		 * @param shapes shapes to be drawn
+		 * @param bounds bounds of the shapes
+		 * @param bandHeight height of a single band
+		 * @param fromBand index of the first band, inclusive
+		 * @param toBand index of the last band, exclusive
+		 */
+		public BandTask(BWRaster raster, GeometricShape[] shapes, BoundingBox[] bounds,
+				int bandHeight, int fromBand, int toBand) {
+			this.raster = raster;
+			this.shapes = shapes;
+			this.bounds = bounds;
+			this.bandHeight = bandHeight;
+			this.fromBand = fromBand;
+			this.toBand = toBand;
+		}
+
+		@Override
+		protected void compute() {
+			if (toBand - fromBand > 1) {
+				int middle = (fromBand + toBand) >>> 1;
+				invokeAll(new BandTask(raster, shapes, bounds, bandHeight, fromBand, middle),
+						new BandTask(raster, shapes, bounds, bandHeight, middle, toBand));
+				return;
+			}
+			int minY = fromBand * bandHeight;
+			int maxY = Math.min(minY + bandHeight, raster.getHeight()) - 1;
+			BoundingBox band = new BoundingBox(0, minY, raster.getWidth() - 1, maxY);
+			BandSink sink = new BandSink(raster);
+			for (int i = 0; i < shapes.length; ++i) {
+				if (shapes[i] == null) {
+					sink.enableFlipMode();
+				} else if (bounds[i] != null && bounds[i].intersects(band)) {
+					shapes[i].emitSpans(sink, band);
+				}
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,107 @@
+package hr.fer.zemris.java.graphics.render;
+
+import java.util.Arrays;
+
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.SpanSink;
+
+/**
+ * Sink which records the spans of a shape inside of the given region, row
+ * by row. Spans of a row must be added from left to right, and touching
+ * spans are merged.
+ *
+ * @author labramusic
+ *
+ */
+class SpanRecorder implements SpanSink {
+
+	/**
+	 * Number of spans a row has room for when it is first used.
+	 */
+	private final static int INITIAL_SPANS = 2;
+
+	/**
+	 * Recorded region.
+	 */
+	private BoundingBox region;
+
+	/**
+	 * Spans of each row of the region, stored as pairs of starting
+	 * (inclusive) and ending (exclusive) positions.
+	 */
+	private int[][] spans;
+
+	/**
+	 * Number of spans in each row of the region.
+	 */
+	private int[] spanCounts;
+
+	/**
+	 * Constructor which accepts the recorded region.
+	 * @param region recorded region
+	 */
+	public SpanRecorder(BoundingBox region) {
+		this.region = region;
+		int rows = region.getMaxY() - region.getMinY() + 1;
+		spans = new int[rows][];
+		spanCounts = new int[rows];
+	}
+
+	/**
+	 * Returns the number of spans recorded in the given row.
+	 * @param y position of the row
+	 * @return number of spans in the row
+	 */
+	public int getSpanCount(int y) {
+		return spanCounts[y - region.getMinY()];
+	}
+
+	/**
+	 * Returns the spans recorded in the given row, as pairs of starting
+	 * (inclusive) and ending (exclusive) positions.
+	 * @param y position of the row
+	 * @return spans of the row
+	 */
+	public int[] getSpans(int y) {
+		return spans[y - region.getMinY()];
+	}
+
+	/**
+	 * Returns the number of rows of the recorded region.
+	 * @return number of rows
+	 */
+	public int getRowCount() {
+		return spans.length;
+	}
+
+	/**
+	 * Records the span, which must lie inside of the recorded region.
+	 */
+	@Override
+	public void addSpan(int y, int x0, int x1) {
+		if (!region.contains(x0, y) || x1 < x0 || x1 > region.getMaxX() + 1) {
+			throw new IllegalArgumentException("Given span is out of bounds.");
+		}
+		if (x0 == x1) {
+			return;
+		}
+		int row = y - region.getMinY();
+		int count = spanCounts[row];
+		int[] rowSpans = spans[row];
+		if (count > 0 && rowSpans[2 * count - 1] >= x0) {
+			rowSpans[2 * count - 1] = Math.max(rowSpans[2 * count - 1], x1);
+			return;
+		}
+		if (rowSpans == null) {
+			rowSpans = new int[2 * INITIAL_SPANS];
+			spans[row] = rowSpans;
+		} else if (rowSpans.length == 2 * count) {
+			rowSpans = Arrays.copyOf(rowSpans, 4 * count);
+			spans[row] = rowSpans;
+		}
+		rowSpans[2 * count] = x0;
+		rowSpans[2 * count + 1] = x1;
+		spanCounts[row] = count + 1;
+	}
+
+}
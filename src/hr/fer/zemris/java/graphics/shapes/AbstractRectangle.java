@@ -1,6 +1,7 @@
 package hr.fer.zemris.java.graphics.shapes;
 
 import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
 
 /**
  * Models an abstract rectangle defined by its width and height.
@@ -56,15 +57,40 @@ public abstract class AbstractRectangle extends GeometricShape {
 	}
 
 	@Override
-	public void draw(BWRaster r) {
-		for (int x = this.x, xMax = this.x + width; x < xMax; ++x) {
-			if (x >= 0 && x < r.getWidth() - 1) {
-				for (int y = this.y, yMax = this.y + height; y < yMax; ++y) {
-					if (y >= 0 && y < r.getHeight() - 1 ) {
-						r.turnOn(x, y);
-					}
-				}
-			}
+	protected ShapeGeometry createGeometry() {
+		return new ShapeGeometry(getClass(), width, height);
+	}
+
+	@Override
+	public BoundingBox getBounds() {
+		return bounds(x, y, (long) x + width - 1, (long) y + height - 1);
+	}
+
+	/**
+	 * Fills the clipped rectangle with a single call. Every point of the
+	 * rectangle inside of the clip region is drawn, including the ones in
+	 * the last row and column of the raster.
+	 */
+	@Override
+	public void draw(BWRaster r, BoundingBox clip) {
+		BoundingBox area = clippedBounds(clip);
+		if (area != null) {
+			r.fillRect(area.getMinX(), area.getMinY(), area.getMaxX() - area.getMinX() + 1,
+					area.getMaxY() - area.getMinY() + 1);
+		}
+	}
+
+	/**
+	 * Emits one span for each row of the clipped rectangle.
+	 */
+	@Override
+	public void emitSpans(SpanSink sink, BoundingBox clip) {
+		BoundingBox area = clippedBounds(clip);
+		if (area == null) {
+			return;
+		}
+		for (int row = area.getMinY(), yMax = area.getMaxY(); row <= yMax; ++row) {
+			sink.addSpan(row, area.getMinX(), area.getMaxX() + 1);
 		}
 	}
 
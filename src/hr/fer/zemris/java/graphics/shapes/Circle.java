@@ -33,6 +33,7 @@ public class Circle extends Oval {
 	public void setRadius(int radius) {
 		this.horizontalRadius = radius;
 		this.verticalRadius = radius;
+		geometryChanged();
 	}
 
 }
@@ -33,6 +33,7 @@ public class Ellipse extends Oval {
 	 */
 	public void setHorizontalRadius(int horizontalRadius) {
 		this.horizontalRadius = horizontalRadius;
+		geometryChanged();
 	}
 
 	/**
@@ -49,6 +50,7 @@ public class Ellipse extends Oval {
 	 */
 	public void setVerticalRadius(int verticalRadius) {
 		this.verticalRadius = verticalRadius;
+		geometryChanged();
 	}
 
 }
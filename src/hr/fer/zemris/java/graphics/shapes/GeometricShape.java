@@ -1,6 +1,10 @@
 package hr.fer.zemris.java.graphics.shapes;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
 
 /**
  * Represents an abstract geometric shape which can be drawn on a raster.
@@ -19,6 +23,18 @@ public abstract class GeometricShape {
 	 */
 	protected int y;
 
+	/**
+	 * Geometry of the shape, or null if it has not been created since the
+	 * geometry last changed.
+	 */
+	private ShapeGeometry geometry;
+
+	/**
+	 * Listeners notified of the changes of the shape, or null if
+	 * there are none.
+	 */
+	private List<ShapeListener> listeners;
+
 	/**
 	 * Constructor which initializes the starting x and y coordinates.
 	 * @param x starting x coordinate 
@@ -35,14 +51,51 @@ public abstract class GeometricShape {
 	 * @param r raster to draw the shape on
 	 */
 	public void draw(BWRaster r) {
-		int width = r.getWidth();
-		int height = r.getHeight();
-		for (int x = 0; x < width; ++x) {
-			for (int y = 0; y < height; ++y) {
-				if(this.containsPoint(x, y)) {
-					r.turnOn(x, y);
+		draw(r, BoundingBox.of(r));
+	}
+
+	/**
+	 * Draws only the part of the shape which lies inside of the given clip
+	 * region, which must be inside of the raster, by filling each span
+	 * emitted by {@link #emitSpans(SpanSink, BoundingBox)}. Shapes completely
+	 * outside of the clip region are skipped.
+	 * @param r raster to draw the shape on
+	 * @param clip region of the raster which can be drawn on
+	 */
+	public void draw(BWRaster r, BoundingBox clip) {
+		emitSpans(r::fillSpan, clip);
+	}
+
+	/**
+	 * Emits the spans of pixels of the shape which lie inside of the given
+	 * clip region to the sink, row by row. Spans of a row are emitted from
+	 * left to right and never overlap. Only the points inside of both the
+	 * shape bounds and the clip region are checked, and each maximal run
+	 * of contained points is emitted as a single span. Subclasses which can
+	 * compute their spans directly should override this method.
+	 * @param sink sink receiving the spans
+	 * @param clip region in which the spans are emitted
+	 */
+	public void emitSpans(SpanSink sink, BoundingBox clip) {
+		BoundingBox area = clippedBounds(clip);
+		if (area == null) {
+			return;
+		}
+		for (int y = area.getMinY(), yMax = area.getMaxY(); y <= yMax; ++y) {
+			int start = -1;
+			for (int x = area.getMinX(), xMax = area.getMaxX(); x <= xMax; ++x) {
+				if (containsPoint(x, y)) {
+					if (start < 0) {
+						start = x;
+					}
+				} else if (start >= 0) {
+					sink.addSpan(y, start, x);
+					start = -1;
 				}
 			}
+			if (start >= 0) {
+				sink.addSpan(y, start, area.getMaxX() + 1);
+			}
 		}
 	}
 
@@ -56,6 +109,131 @@ public abstract class GeometricShape {
 	 */
 	public abstract boolean containsPoint(int x, int y);
 
+	/**
+	 * Checks for each of the given points if it belongs to the geometric
+	 * shape, storing the results in the given array. The arrays of the x and
+	 * y coordinates must be of the same length, and the array of the results
+	 * must be at least that long.
+	 * @param xs x coordinates of the points
+	 * @param ys y coordinates of the points
+	 * @param out array in which the result for each point is stored
+	 */
+	public void containsPoints(int[] xs, int[] ys, boolean[] out) {
+		if (xs == null || ys == null || out == null) {
+			throw new IllegalArgumentException("Arrays cannot be null.");
+		}
+		if (xs.length != ys.length || out.length < xs.length) {
+			throw new IllegalArgumentException("Arrays must be long enough to hold all the points.");
+		}
+		for (int i = 0; i < xs.length; ++i) {
+			out[i] = containsPoint(xs[i], ys[i]);
+		}
+	}
+
+	/**
+	 * Returns the smallest bounding box which contains every point of the
+	 * geometric shape, or null if the shape contains no points, such as a
+	 * rectangle whose width was set to 0. Coordinates beyond the range of
+	 * int are clamped to it.
+	 * @return bounding box of the shape, or null
+	 */
+	public abstract BoundingBox getBounds();
+
+	/**
+	 * Returns the part of the bounds of the shape which lies inside of the
+	 * given clip region, or null if the shape has no points there.
+	 * @param clip clip region
+	 * @return clipped bounds of the shape, or null
+	 */
+	protected BoundingBox clippedBounds(BoundingBox clip) {
+		BoundingBox bounds = getBounds();
+		return bounds == null ? null : bounds.intersection(clip);
+	}
+
+	/**
+	 * Creates the bounds of a shape from coordinates computed in long
+	 * arithmetic, so that shapes near the limits of int cannot overflow.
+	 * The coordinates are clamped to the range of int.
+	 * @param minX minimum x coordinate
+	 * @param minY minimum y coordinate
+	 * @param maxX maximum x coordinate
+	 * @param maxY maximum y coordinate
+	 * @return bounds of the shape, or null if a minimum coordinate is
+	 *         greater than the maximum one or the box lies outside of int
+	 */
+	protected static BoundingBox bounds(long minX, long minY, long maxX, long maxY) {
+		if (minX > maxX || minY > maxY || minX > Integer.MAX_VALUE || minY > Integer.MAX_VALUE
+				|| maxX < Integer.MIN_VALUE || maxY < Integer.MIN_VALUE) {
+			return null;
+		}
+		return new BoundingBox((int) Math.max(minX, Integer.MIN_VALUE), (int) Math.max(minY, Integer.MIN_VALUE),
+				(int) Math.min(maxX, Integer.MAX_VALUE), (int) Math.min(maxY, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * Returns the geometry of the shape, which describes its type and
+	 * dimensions, but not its position.
+	 * @return geometry of the shape
+	 */
+	public ShapeGeometry getGeometry() {
+		if (geometry == null) {
+			geometry = createGeometry();
+		}
+		return geometry;
+	}
+
+	/**
+	 * Creates the geometry of the shape from its current dimensions.
+	 * @return geometry of the shape
+	 */
+	protected abstract ShapeGeometry createGeometry();
+
+	/**
+	 * Must be called by subclasses whenever a dimension of the shape changes,
+	 * so that anything computed from the previous geometry is discarded.
+	 */
+	protected void geometryChanged() {
+		geometry = null;
+		fireShapeChanged();
+	}
+
+	/**
+	 * Registers the listener which is notified whenever the position
+	 * or the geometry of the shape changes.
+	 * @param listener listener
+	 */
+	public void addListener(ShapeListener listener) {
+		if (listener == null) {
+			throw new IllegalArgumentException("Listener cannot be null.");
+		}
+		if (listeners == null) {
+			listeners = new ArrayList<>();
+		}
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes the previously registered listener.
+	 * @param listener listener
+	 */
+	public void removeListener(ShapeListener listener) {
+		if (listeners != null) {
+			listeners.remove(listener);
+		}
+	}
+
+	/**
+	 * Notifies all the registered listeners that the shape has changed.
+	 */
+	protected void fireShapeChanged() {
+		if (listeners == null) {
+			return;
+		}
+		for (int i = 0; i < listeners.size(); ++i) {
+			listeners.get(i).shapeChanged(this);
+		}
+	}
+
 	/**
 	 * Returns the starting x coordinate of the shape.
 	 * @return starting x coordinate
@@ -70,6 +248,7 @@ public abstract class GeometricShape {
 	 */
 	public void setX(int x) {
 		this.x = x;
+		fireShapeChanged();
 	}
 
 	/**
@@ -86,6 +265,7 @@ public abstract class GeometricShape {
 	 */
 	public void setY(int y) {
 		this.y = y;
+		fireShapeChanged();
 	}
 
 }
@@ -1,5 +1,7 @@
 package hr.fer.zemris.java.graphics.shapes;
 
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+
 /**
  * Models an oval shape defined by its horizontal and vertical radiuses.
  * @author labramusic
@@ -17,6 +19,19 @@ public abstract class Oval extends GeometricShape {
 	 */
 	private final static int MIN_VER_RADIUS = 1;
 
+	/**
+	 * Largest product of the reduced radiuses for which the squared
+	 * elliptical formula can be evaluated exactly in long arithmetic.
+	 */
+	private final static long MAX_EXACT_PRODUCT = 3037000499L;
+
+	/**
+	 * Number of bits by which the squared product of the reduced radiuses is
+	 * shifted to get the largest error of the elliptical formula evaluated in
+	 * double precision, relative to the exact integer formula.
+	 */
+	private final static int ROUNDING_BITS = 48;
+
 	/**
 	 * Horizontal radius.
 	 */
@@ -27,6 +42,39 @@ public abstract class Oval extends GeometricShape {
 	 */
 	protected int verticalRadius;
 
+	/**
+	 * Reduced horizontal radius, which is 0 for the radius of one pixel.
+	 */
+	private long a;
+
+	/**
+	 * Reduced vertical radius, which is 0 for the radius of one pixel.
+	 */
+	private long b;
+
+	/**
+	 * Square of the reduced horizontal radius.
+	 */
+	private long aa;
+
+	/**
+	 * Square of the reduced vertical radius.
+	 */
+	private long bb;
+
+	/**
+	 * Largest difference between the sides of the exact elliptical formula
+	 * for which the formula evaluated in double precision may give
+	 * a different result.
+	 */
+	private long tolerance;
+
+	/**
+	 * True if both reduced radiuses are positive and the elliptical formula
+	 * can be evaluated exactly in long arithmetic.
+	 */
+	private boolean exact;
+
 	/**
 	 * Initializes a new oval with its center point, horizontal and vertical radius.
 	 * Radiuses must be at least 1 pixel wide.
@@ -42,26 +90,93 @@ public abstract class Oval extends GeometricShape {
 		}
 		this.horizontalRadius = horizRadius;
 		this.verticalRadius = vertRadius;
+		updateCoefficients();
 	}
 
+	/**
+	 * Checks if the point is contained in the oval using the elliptical formula
+	 * dx^2 * b^2 + dy^2 * a^2 &lt;= a^2 * b^2 in exact long arithmetic, where
+	 * a and b are the reduced radiuses. Points for which the formula evaluated
+	 * in double precision could round to a different result, such as the
+	 * points lying exactly on the boundary, are checked by evaluating it in
+	 * double precision, so the result is always the same as before.
+	 */
 	@Override
 	public boolean containsPoint(int x, int y) {
+		return containsOffset((long) x - this.x, (long) y - this.y);
+	}
+
+	/**
+	 * Checks if the point at the given offset from the center is contained
+	 * in the oval, as described by {@link #containsPoint(int, int)}.
+	 * @param dx horizontal offset from the center
+	 * @param dy vertical offset from the center
+	 * @return true if the point is inside of the boundaries of the oval
+	 */
+	private boolean containsOffset(long dx, long dy) {
+		if (((a - Math.abs(dx)) | (b - Math.abs(dy))) < 0) {
+			// outside of the bounding box
+			return false;
+		}
+		if (!exact) {
+			return a == 0 || b == 0 || containsOffsetDouble(dx, dy);
+		}
+		long difference = aa * (bb - dy * dy) - dx * dx * bb;
+		if (Math.abs(difference) > tolerance) {
+			return difference > 0;
+		}
+		return containsOffsetDouble(dx, dy);
+	}
+
+	/**
+	 * Recomputes the coefficients of the elliptical formula
+	 * when the radiuses change.
+	 */
+	@Override
+	protected void geometryChanged() {
+		updateCoefficients();
+		super.geometryChanged();
+	}
+
+	/**
+	 * Computes the coefficients of the elliptical formula
+	 * from the current radiuses.
+	 */
+	private void updateCoefficients() {
+		a = horizontalRadius - 1L;
+		b = verticalRadius - 1L;
+		aa = a * a;
+		bb = b * b;
+		// a single pixel wide oval is its bounding box, so it needs no formula
+		exact = a * b <= MAX_EXACT_PRODUCT && a != 0 && b != 0;
+		tolerance = exact ? (aa * bb) >>> ROUNDING_BITS : 0;
+	}
+
+	/**
+	 * Checks if the point at the given offset from the center, which must be
+	 * inside of the bounding box, is contained in the oval by evaluating the
+	 * elliptical formula in double precision.
+	 * @param dx horizontal offset from the center
+	 * @param dy vertical offset from the center
+	 * @return true if the point is inside of the boundaries of the oval
+	 */
+	private boolean containsOffsetDouble(long dx, long dy) {
 		// uses the elliptical formula, with modifications
 		// in order to make a radius equal to 1 represent one pixel
 		double result = 0;
 		if (horizontalRadius == 1) {
-			if (x != this.x) {
+			if (dx != 0) {
 				return false;
 			}
 		} else {
-			result += Math.pow((double)(x - this.x)/(horizontalRadius-1), 2);
+			result += Math.pow((double) dx / (horizontalRadius - 1), 2);
 		}
 		if (verticalRadius == 1) {
-			if (y != this.y) {
+			if (dy != 0) {
 				return false;
 			}
 		} else {
-			result += Math.pow((double)(y - this.y)/(verticalRadius-1), 2);
+			result += Math.pow((double) dy / (verticalRadius - 1), 2);
 		}
 		if (result > 1) {
 			return false;
@@ -69,4 +184,94 @@ public abstract class Oval extends GeometricShape {
 		return true;
 	}
 
+	@Override
+	protected ShapeGeometry createGeometry() {
+		return new ShapeGeometry(getClass(), horizontalRadius, verticalRadius);
+	}
+
+	@Override
+	public BoundingBox getBounds() {
+		return bounds(x - a, y - b, x + a, y + b);
+	}
+
+	/**
+	 * Emits the span of each row inside the oval directly from the
+	 * elliptical formula, instead of checking each pixel.
+	 */
+	@Override
+	public void emitSpans(SpanSink sink, BoundingBox clip) {
+		BoundingBox area = clippedBounds(clip);
+		if (area == null) {
+			return;
+		}
+		for (int row = area.getMinY(), yMax = area.getMaxY(); row <= yMax; ++row) {
+			long half = halfSpan((long) row - y);
+			int x0 = (int) Math.max(x - half, area.getMinX());
+			int x1 = (int) Math.min(x + half, area.getMaxX()) + 1;
+			if (x0 < x1) {
+				sink.addSpan(row, x0, x1);
+			}
+		}
+	}
+
+	/**
+	 * Returns the largest distance dx for which the point (x + dx, y + dy)
+	 * is contained in the oval, where dy must be at most the reduced vertical
+	 * radius away from the center. The span is computed from the squared
+	 * elliptical formula in long arithmetic, while the points within the
+	 * rounding tolerance of the boundary are resolved exactly like
+	 * {@link #containsPoint(int, int)} resolves them, so that the drawn
+	 * pixels are always the same as the contained ones.
+	 * @param dy vertical distance from the center
+	 * @return half of the oval span width at the given row
+	 */
+	private long halfSpan(long dy) {
+		if (a == 0) {
+			return 0;
+		}
+		if (b == 0) {
+			return a;
+		}
+		long dx;
+		if (exact) {
+			// largest dx for which dx^2 * b^2 + dy^2 * a^2 <= a^2 * b^2
+			long rhs = aa * (bb - dy * dy);
+			dx = isqrt(rhs / bb);
+			while (dx < a && (dx + 1) * (dx + 1) * bb - rhs <= tolerance && containsOffset(dx + 1, dy)) {
+				++dx;
+			}
+			while (dx > 0 && rhs - dx * dx * bb <= tolerance && !containsOffset(dx, dy)) {
+				--dx;
+			}
+		} else {
+			// too large for exact arithmetic, correct the estimate pixel by pixel
+			double ratio = (double) dy / b;
+			dx = Math.min((long) (a * Math.sqrt(1 - ratio * ratio)), a);
+			while (dx < a && containsOffset(dx + 1, dy)) {
+				++dx;
+			}
+			while (dx > 0 && !containsOffset(dx, dy)) {
+				--dx;
+			}
+		}
+		return dx;
+	}
+
+	/**
+	 * Returns the integer square root of the given non-negative value,
+	 * the largest number whose square is not greater than the value.
+	 * @param value non-negative value
+	 * @return integer square root
+	 */
+	private static long isqrt(long value) {
+		long root = (long) Math.sqrt(value);
+		while (root * root > value) {
+			--root;
+		}
+		while ((root + 1) * (root + 1) <= value) {
+			++root;
+		}
+		return root;
+	}
+
 }
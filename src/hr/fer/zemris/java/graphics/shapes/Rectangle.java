@@ -33,6 +33,7 @@ public class Rectangle extends AbstractRectangle {
 	 */
 	public void setWidth(int width) {
 		this.width = width;
+		geometryChanged();
 	}
 
 	/**
@@ -49,6 +50,7 @@ public class Rectangle extends AbstractRectangle {
 	 */
 	public void setHeight(int height) {
 		this.height = height;
+		geometryChanged();
 	}
 
 }
@@ -0,0 +1,70 @@
+package hr.fer.zemris.java.graphics.shapes;
+
+import java.util.Arrays;
+
+/**
+ * Unmodifiable description of the geometry of a shape, made of the shape type
+ * and its dimensions, but not of its position. Two shapes with equal
+ * geometries contain the same points relative to their starting coordinates,
+ * so the geometry can be used as a key for caching anything computed from
+ * the shape relative to its position.
+ *
+ * @author labramusic
+ *
+ */
+public final class ShapeGeometry {
+
+	/**
+	 * Shape type.
+	 */
+	private final Class<? extends GeometricShape> type;
+
+	/**
+	 * Shape dimensions.
+	 */
+	private final int[] dimensions;
+
+	/**
+	 * Constructor which accepts the shape type and its dimensions.
+	 * @param type shape type
+	 * @param dimensions shape dimensions, such as its width and height
+	 */
+	public ShapeGeometry(Class<? extends GeometricShape> type, int... dimensions) {
+		if (type == null) {
+			throw new IllegalArgumentException("Shape type cannot be null.");
+		}
+		this.type = type;
+		this.dimensions = dimensions.clone();
+	}
+
+	/**
+	 * Returns the shape type.
+	 * @return shape type
+	 */
+	public Class<? extends GeometricShape> getType() {
+		return type;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * type.hashCode() + Arrays.hashCode(dimensions);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof ShapeGeometry)) {
+			return false;
+		}
+		ShapeGeometry other = (ShapeGeometry) obj;
+		return type == other.type && Arrays.equals(dimensions, other.dimensions);
+	}
+
+	@Override
+	public String toString() {
+		return type.getSimpleName() + Arrays.toString(dimensions);
+	}
+
+}
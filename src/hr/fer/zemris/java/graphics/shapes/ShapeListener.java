@@ -0,0 +1,18 @@
+package hr.fer.zemris.java.graphics.shapes;
+
+/**
+ * Listener which is notified whenever the position or the geometry
+ * of a shape changes.
+ *
+ * @author labramusic
+ *
+ */
+public interface ShapeListener {
+
+	/**
+	 * Called after the position or the geometry of the shape has changed.
+	 * @param shape shape which has changed
+	 */
+	void shapeChanged(GeometricShape shape);
+
+}
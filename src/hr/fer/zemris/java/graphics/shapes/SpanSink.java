@@ -0,0 +1,24 @@
+package hr.fer.zemris.java.graphics.shapes;
+
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+
+/**
+ * Receiver of the horizontal spans of pixels which make up a shape, as
+ * emitted by {@link GeometricShape#emitSpans(SpanSink, BoundingBox)}. Any
+ * raster can be used as a sink through its fill span method.
+ *
+ * @author labramusic
+ *
+ */
+public interface SpanSink {
+
+	/**
+	 * Called for each span of pixels of the shape. Spans of the same row are
+	 * emitted from left to right and never overlap.
+	 * @param y position of the row
+	 * @param x0 starting position of the span, inclusive
+	 * @param x1 ending position of the span, exclusive
+	 */
+	void addSpan(int y, int x0, int x1);
+
+}
@@ -33,6 +33,7 @@ public class Square extends AbstractRectangle {
 	public void setSize(int size) {
 		this.width = size;
 		this.height = size;
+		geometryChanged();
 	}
 
 }
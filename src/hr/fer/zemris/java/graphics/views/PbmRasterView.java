@@ -0,0 +1,182 @@
+package hr.fer.zemris.java.graphics.views;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BitPackedRaster;
+import hr.fer.zemris.java.graphics.raster.RunLengthRaster;
+
+/**
+ * Writes the image to a byte channel in the binary PBM (P4) format. Pixels
+ * which are turned off are written as black and pixels which are turned on
+ * as white. Rows of bit-packed rasters are converted from the stored words
+ * 64 pixels at a time, rows of run-length rasters only touch the pixels of
+ * their runs, while other rasters are read pixel by pixel. The padding bits
+ * at the end of each row are always zero, whichever way the row is read.
+ * Write failures are reported as UncheckedIOException.
+ * 
+ * @author labramusic
+ *
+ */
+public class PbmRasterView implements RasterView {
+
+	/**
+	 * Size of the output buffer.
+	 */
+	private final static int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Channel the image is written to.
+	 */
+	private WritableByteChannel channel;
+
+	/**
+	 * Output buffer.
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Constructor which sets the channel the image is written to.
+	 * @param channel output channel
+	 */
+	public PbmRasterView(WritableByteChannel channel) {
+		if (channel == null) {
+			throw new IllegalArgumentException("Channel cannot be null.");
+		}
+		this.channel = channel;
+		buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	}
+
+	/**
+	 * Writes the image to the channel.
+	 * @return null
+	 */
+	@Override
+	public Object produce(BWRaster raster) {
+		try {
+			buffer.clear();
+			String header = "P4\n" + raster.getWidth() + " " + raster.getHeight() + "\n";
+			buffer.put(header.getBytes(StandardCharsets.US_ASCII));
+			if (raster instanceof RunLengthRaster) {
+				writeRuns((RunLengthRaster) raster);
+			} else if (raster instanceof BitPackedRaster) {
+				writeWords((BitPackedRaster) raster);
+			} else {
+				writePixels(raster);
+			}
+			flush();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the rows of a bit-packed raster, one word at a time. In PBM the
+	 * leftmost pixel of a byte is its most significant bit and 1 means black,
+	 * so each word is bit-reversed, inverted and written in big-endian order.
+	 * @param raster bit-packed raster
+	 * @throws IOException if writing fails
+	 */
+	private void writeWords(BitPackedRaster raster) throws IOException {
+		int height = raster.getHeight();
+		int words = raster.getWordsPerRow();
+		int rowBytes = (raster.getWidth() + 7) >>> 3;
+		int lastBytes = rowBytes - ((words - 1) << 3);
+		// clears the padding bits, which are set after the inversion
+		long padding = -1L << (64 - (raster.getWidth() - ((words - 1) << 6)));
+		for (int y = 0; y < height; ++y) {
+			for (int i = 0; i < words - 1; ++i) {
+				ensureCapacity(8);
+				buffer.putLong(~Long.reverse(raster.getWord(y, i)));
+			}
+			long last = ~Long.reverse(raster.getWord(y, words - 1)) & padding;
+			ensureCapacity(lastBytes);
+			for (int i = 0; i < lastBytes; ++i) {
+				buffer.put((byte) (last >>> 56));
+				last <<= 8;
+			}
+		}
+	}
+
+	/**
+	 * Writes the rows of a run-length raster. Each row starts as all black,
+	 * except for the padding bits, and only the pixels of its runs are turned
+	 * white.
+	 * @param raster run-length raster
+	 * @throws IOException if writing fails
+	 */
+	private void writeRuns(RunLengthRaster raster) throws IOException {
+		int height = raster.getHeight();
+		byte[] row = new byte[(raster.getWidth() + 7) >>> 3];
+		byte padding = (byte) (0xFF00 >>> (((raster.getWidth() - 1) & 7) + 1));
+		for (int y = 0; y < height; ++y) {
+			Arrays.fill(row, (byte) 0xFF);
+			row[row.length - 1] = padding;
+			for (int i = 0, count = raster.getRunCount(y); i < count; ++i) {
+				for (int x = raster.getRunStart(y, i), end = raster.getRunEnd(y, i); x < end; ++x) {
+					row[x >>> 3] &= ~(0x80 >>> (x & 7));
+				}
+			}
+			for (int written = 0; written < row.length;) {
+				ensureCapacity(1);
+				int length = Math.min(buffer.remaining(), row.length - written);
+				buffer.put(row, written, length);
+				written += length;
+			}
+		}
+	}
+
+	/**
+	 * Writes the rows of any raster, one pixel at a time.
+	 * @param raster raster
+	 * @throws IOException if writing fails
+	 */
+	private void writePixels(BWRaster raster) throws IOException {
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		for (int y = 0; y < height; ++y) {
+			for (int x = 0; x < width; x += 8) {
+				int bits = 0;
+				for (int bit = 0; bit < 8; ++bit) {
+					bits <<= 1;
+					if (x + bit < width && !raster.isTurnedOn(x + bit, y)) {
+						bits |= 1;
+					}
+				}
+				ensureCapacity(1);
+				buffer.put((byte) bits);
+			}
+		}
+	}
+
+	/**
+	 * Makes sure the buffer has room for the given number of bytes,
+	 * writing its content to the channel if needed.
+	 * @param bytes number of bytes
+	 * @throws IOException if writing fails
+	 */
+	private void ensureCapacity(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	/**
+	 * Writes the content of the buffer to the channel and clears it.
+	 * @throws IOException if writing fails
+	 */
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+}
@@ -0,0 +1,59 @@
+package hr.fer.zemris.java.graphics.views;
+
+import java.util.Arrays;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BitPackedRaster;
+import hr.fer.zemris.java.graphics.raster.RunLengthRaster;
+
+/**
+ * Utility methods shared by the textual raster views.
+ * 
+ * @author labramusic
+ *
+ */
+class RasterRows {
+
+	/**
+	 * Private constructor, since this class only offers static methods.
+	 */
+	private RasterRows() {
+	}
+
+	/**
+	 * Writes the characters representing the pixels of the given raster row
+	 * into the array, starting at the given offset. Rows of bit-packed
+	 * rasters are read a whole word at a time, and rows of run-length
+	 * rasters are filled a whole run at a time.
+	 * @param raster raster
+	 * @param y position of the row
+	 * @param dest destination array
+	 * @param offset position of the first character in the array
+	 * @param onChar character representing pixels that are turned on
+	 * @param offChar character representing pixels that are turned off
+	 */
+	static void formatRow(BWRaster raster, int y, char[] dest, int offset, char onChar, char offChar) {
+		int width = raster.getWidth();
+		if (raster instanceof RunLengthRaster) {
+			RunLengthRaster runs = (RunLengthRaster) raster;
+			Arrays.fill(dest, offset, offset + width, offChar);
+			for (int i = 0, count = runs.getRunCount(y); i < count; ++i) {
+				Arrays.fill(dest, offset + runs.getRunStart(y, i), offset + runs.getRunEnd(y, i), onChar);
+			}
+		} else if (raster instanceof BitPackedRaster) {
+			BitPackedRaster packed = (BitPackedRaster) raster;
+			for (int index = 0, x = 0; x < width; ++index) {
+				long word = packed.getWord(y, index);
+				for (int xMax = Math.min(x + 64, width); x < xMax; ++x) {
+					dest[offset++] = (word & 1) != 0 ? onChar : offChar;
+					word >>>= 1;
+				}
+			}
+		} else {
+			for (int x = 0; x < width; ++x) {
+				dest[offset++] = raster.isTurnedOn(x, y) ? onChar : offChar;
+			}
+		}
+	}
+
+}
@@ -1,9 +1,17 @@
 package hr.fer.zemris.java.graphics.views;
 
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
 import hr.fer.zemris.java.graphics.raster.BWRaster;
 
 /**
- * Outputs the textual representation of the image to the standard output.
+ * Outputs the textual representation of the image to the standard output,
+ * or to the given writer. Each row is built in a reusable character buffer
+ * and written with a single call. Write failures are reported as
+ * UncheckedIOException.
  * @author labramusic
  *
  */
@@ -19,15 +27,41 @@ public class SimpleRasterView implements RasterView {
 	 */
 	private char offChar;
 
+	/**
+	 * Writer the image is written to.
+	 */
+	private Writer out;
+
+	/**
+	 * Buffer holding a single row followed by the line separator.
+	 */
+	private char[] row;
+
 	/**
 	 * Constructor which sets the characters representing pixels that 
-	 * are turned on and pixels that are turned off.
+	 * are turned on and pixels that are turned off, and the writer
+	 * the image is written to.
 	 * @param onChar character representing pixels that are turned on
 	 * @param offChar character representing pixels that are turned off
+	 * @param out writer the image is written to
 	 */
-	public SimpleRasterView(char onChar, char offChar) {
+	public SimpleRasterView(char onChar, char offChar, Writer out) {
+		if (out == null) {
+			throw new IllegalArgumentException("Writer cannot be null.");
+		}
 		this.onChar = onChar;
 		this.offChar = offChar;
+		this.out = out;
+	}
+
+	/**
+	 * Constructor which sets the characters representing pixels that 
+	 * are turned on and pixels that are turned off.
+	 * @param onChar character representing pixels that are turned on
+	 * @param offChar character representing pixels that are turned off
+	 */
+	public SimpleRasterView(char onChar, char offChar) {
+		this(onChar, offChar, new OutputStreamWriter(System.out));
 	}
 
 	/**
@@ -42,15 +76,20 @@ public class SimpleRasterView implements RasterView {
 	public Object produce(BWRaster raster) {
 		int width = raster.getWidth();
 		int height = raster.getHeight();
-		for (int y = 0; y < height; ++y) {
-			for (int x = 0; x < width; ++x) {
-				if (raster.isTurnedOn(x, y)) {
-					System.out.print(onChar);
-				} else {
-					System.out.print(offChar);
-				}
+		String separator = System.lineSeparator();
+		int length = width + separator.length();
+		if (row == null || row.length != length) {
+			row = new char[length];
+			separator.getChars(0, separator.length(), row, width);
+		}
+		try {
+			for (int y = 0; y < height; ++y) {
+				RasterRows.formatRow(raster, y, row, 0, onChar, offChar);
+				out.write(row, 0, length);
 			}
-			System.out.println();
+			out.flush();
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
 		}
 		return null;
 	}
@@ -1,9 +1,13 @@
 package hr.fer.zemris.java.graphics.views;
 
+import java.nio.CharBuffer;
+
 import hr.fer.zemris.java.graphics.raster.BWRaster;
 
 /**
- * Returns a String containing textual representation of the image.
+ * Returns a String containing textual representation of the image. The image
+ * can also be rendered into a caller-supplied character array or buffer, so
+ * that repeated snapshots of a raster don't create any garbage.
  * @author labramusic
  *
  */
@@ -19,6 +23,11 @@ public class StringRasterView implements RasterView {
 	 */
 	private char offChar;
 
+	/**
+	 * Buffer holding a single row, used for buffers without a backing array.
+	 */
+	private char[] row;
+
 	/**
 	 * Constructor which sets the characters representing pixels that 
 	 * are turned on and pixels that are turned off.
@@ -40,18 +49,79 @@ public class StringRasterView implements RasterView {
 
 	@Override
 	public Object produce(BWRaster raster) {
-		StringBuilder sb = new StringBuilder();
-		for (int y = 0; y < raster.getHeight(); ++y) {
-			for (int x = 0; x < raster.getWidth(); ++x) {
-				if (raster.isTurnedOn(x, y)) {
-					sb.append(onChar);
-				} else {
-					sb.append(offChar);
-				}
-			}
-			sb.append('\n');
+		char[] image = new char[length(raster)];
+		produce(raster, image, 0);
+		return new String(image);
+	}
+
+	/**
+	 * Writes the textual representation of the image into the given array,
+	 * starting at the given offset. The array must have room for
+	 * (width + 1) * height characters.
+	 * @param raster raster for drawing images
+	 * @param dest destination array
+	 * @param offset position of the first character in the array
+	 * @return number of characters written
+	 */
+	public int produce(BWRaster raster, char[] dest, int offset) {
+		int length = length(raster);
+		if (offset < 0 || offset > dest.length - length) {
+			throw new IllegalArgumentException("Destination array is too small.");
+		}
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		for (int y = 0; y < height; ++y) {
+			RasterRows.formatRow(raster, y, dest, offset, onChar, offChar);
+			offset += width;
+			dest[offset++] = '\n';
+		}
+		return length;
+	}
+
+	/**
+	 * Writes the textual representation of the image into the given buffer,
+	 * starting at its position, which is advanced past the written
+	 * characters. The buffer must have room for (width + 1) * height
+	 * characters.
+	 * @param raster raster for drawing images
+	 * @param dest destination buffer
+	 * @return number of characters written
+	 */
+	public int produce(BWRaster raster, CharBuffer dest) {
+		int length = length(raster);
+		if (dest.remaining() < length) {
+			throw new IllegalArgumentException("Destination buffer is too small.");
+		}
+		if (dest.hasArray()) {
+			produce(raster, dest.array(), dest.arrayOffset() + dest.position());
+			dest.position(dest.position() + length);
+			return length;
+		}
+		int width = raster.getWidth();
+		int height = raster.getHeight();
+		if (row == null || row.length != width + 1) {
+			row = new char[width + 1];
+			row[width] = '\n';
+		}
+		for (int y = 0; y < height; ++y) {
+			RasterRows.formatRow(raster, y, row, 0, onChar, offChar);
+			dest.put(row);
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the number of characters in the textual representation
+	 * of the image.
+	 * @param raster raster for drawing images
+	 * @return number of characters
+	 */
+	private static int length(BWRaster raster) {
+		long length = (long) (raster.getWidth() + 1) * raster.getHeight();
+		if (length > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Raster is too large for a textual representation.");
 		}
-		return sb.toString();
+		return (int) length;
 	}
 
 }
@@ -0,0 +1,70 @@
+package hr.fer.zemris.java.cstr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CRopeTests {
+
+	@Test
+	public void testAddAndSlice() {
+		CRope rope = CRope.fromString("Ananas").add(CString.fromString(" i banana"));
+
+		assertEquals(15, rope.length());
+		assertEquals("Ananas i banana", rope.toString());
+		assertEquals("nas i ba", rope.substring(3, 11).toString());
+		assertEquals("Ana", rope.left(3).toString());
+		assertEquals("nana", rope.right(4).toString());
+		assertEquals("", rope.substring(14, 14).toString());
+		assertEquals('b', rope.charAt(9));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalSubstring() {
+		CRope.fromString("Ananas").substring(4, 3);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalSubstringAtEnd() {
+		CRope.fromString("Ananas").substring(6, 6);
+	}
+
+	@Test
+	public void testLongRope() {
+		CRope rope = CRope.fromString("");
+		StringBuilder expected = new StringBuilder();
+		CString piece = CString.fromString("abc");
+
+		for (int i = 0; i < 100000; ++i) {
+			rope = rope.add(piece);
+			expected.append("abc");
+		}
+		rope = rope.substring(1000, 250000).add(rope.left(1000));
+		String text = expected.substring(1000, 250000) + expected.substring(0, 1000);
+
+		assertEquals(text, rope.toString());
+		assertEquals(text.charAt(123457), rope.charAt(123457));
+		assertTrue(rope.getDepth() <= 30);
+	}
+
+	@Test
+	public void testSearchAcrossLeaves() {
+		CRope rope = CRope.fromString("");
+		for (int i = 0; i < 1000; ++i) {
+			rope = rope.add(CString.fromString("aaaaaaaa"));
+		}
+		rope = rope.add(CString.fromString("b")).add(rope);
+		CString needle = CString.fromString("aaab");
+
+		assertEquals(7997, rope.indexOf(needle));
+		assertEquals(8000, rope.indexOf('b'));
+		assertTrue(rope.contains(CString.fromString("baaa")));
+		assertFalse(rope.contains(CString.fromString("bb")));
+		assertTrue(rope.startsWith(CString.fromString("aaaa")));
+		assertTrue(rope.endsWith(CString.fromString("aaaa")));
+		assertFalse(rope.endsWith(CString.fromString("b")));
+	}
+
+}
@@ -0,0 +1,67 @@
+package hr.fer.zemris.java.cstr;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class CStringBuilderTests {
+
+	@Test
+	public void testAppend() {
+		CStringBuilder builder = new CStringBuilder(0);
+		CString str = CString.fromString("Ananas");
+
+		builder.append(str).append(' ').append(str.substring(1, 4)).append('!');
+
+		assertEquals(11, builder.length());
+		assertEquals("Ananas nan!", builder.build().toString());
+	}
+
+	@Test
+	public void testAppendSlice() {
+		CStringBuilder builder = new CStringBuilder();
+		CString str = new CString(new char[] {'A', 'n', 'a', 'n', 'a', 's'}, 1, 4);
+
+		builder.append(str, 1, 3).append(str, 0, 0).append(str, 0, 4);
+
+		assertEquals("annana", builder.build().toString());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalSlice() {
+		CString str = new CString(new char[] {'A', 'n', 'a', 'n', 'a', 's'}, 1, 4);
+
+		new CStringBuilder().append(str, 2, 5);
+	}
+
+	@Test
+	public void testBuiltStringUnchanged() {
+		CStringBuilder builder = new CStringBuilder();
+		builder.append(CString.fromString("Banana"));
+		CString first = builder.build();
+
+		builder.append('s');
+		CString second = builder.build();
+		builder.clear();
+		builder.append(CString.fromString("Kiwi"));
+
+		assertEquals("Banana", first.toString());
+		assertEquals("Bananas", second.toString());
+		assertEquals("Kiwi", builder.build().toString());
+	}
+
+	@Test
+	public void testManyPieces() {
+		CStringBuilder builder = new CStringBuilder();
+		StringBuilder expected = new StringBuilder();
+		CString piece = CString.fromString("ab");
+
+		for (int i = 0; i < 10000; ++i) {
+			builder.append(piece);
+			expected.append("ab");
+		}
+
+		assertEquals(expected.toString(), builder.build().toString());
+	}
+
+}
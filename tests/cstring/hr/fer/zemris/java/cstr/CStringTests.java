@@ -1,5 +1,6 @@
 package hr.fer.zemris.java.cstr;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -23,6 +24,16 @@ public class CStringTests {
 		assertEquals("Sunce", peti.toString());
 	}
 
+	@Test
+	public void testCreateEmptyWithAnyOffset() {
+		CString str = new CString(new char[3], -1, 0);
+
+		assertEquals("", str.toString());
+		assertEquals(0, str.toCharArray().length);
+		assertEquals("ab", str.add(CString.fromString("ab")).toString());
+		assertEquals("ab", CString.fromString("ab").add(str).toString());
+	}
+
 	@Test
 	public void testCharAt() {
 		CString str = new CString(new char[] {'A', 'n', 'a', 'n', 'a', 's'}, 1, 4);
@@ -84,6 +95,66 @@ public class CStringTests {
 		assertFalse(string.contains(test3));
 	}
 
+	@Test
+	public void testIndexOfString() {
+		CString str = new CString(new String("xabaababaabay").toCharArray(), 1, 11);
+		CString sub = CString.fromString("abaa");
+
+		assertEquals(0, str.indexOf(sub));
+		assertEquals(5, str.indexOf(sub, 1));
+		assertEquals(-1, str.indexOf(sub, 6));
+		assertEquals(-1, str.indexOf(CString.fromString("y")));
+		assertEquals(3, str.indexOf(CString.fromString(""), 3));
+		assertEquals(11, str.indexOf(CString.fromString(""), 20));
+	}
+
+	@Test
+	public void testIndexOfShortString() {
+		CString str = new CString(new String("xabaababaabay").toCharArray(), 1, 11);
+		CString pair = new CString(new char[] {'b', 'a', 'a'}, 1, 2);
+
+		assertEquals(2, str.indexOf(pair));
+		assertEquals(7, str.indexOf(pair, 3));
+		assertEquals(-1, str.indexOf(pair, 8));
+		assertEquals(1, str.indexOf(CString.fromString("b")));
+		assertEquals(-1, str.indexOf(CString.fromString("ay")));
+		assertTrue(str.contains(CString.fromString("ab")));
+		assertFalse(str.contains(CString.fromString("bb")));
+	}
+
+	@Test
+	public void testLastIndexOf() {
+		CString str = new CString(new String("xabaababaabay").toCharArray(), 1, 11);
+		CString sub = CString.fromString("aba");
+
+		assertEquals(8, str.lastIndexOf(sub));
+		assertEquals(5, str.lastIndexOf(sub, 7));
+		assertEquals(0, str.lastIndexOf(sub, 2));
+		assertEquals(-1, str.lastIndexOf(sub, -1));
+		assertEquals(11, str.lastIndexOf(CString.fromString("")));
+	}
+
+	@Test
+	public void testIndexesOf() {
+		CString str = CString.fromString("aaaaa");
+
+		assertArrayEquals(new int[] {0, 2}, str.indexesOf(CString.fromString("aa")));
+		assertArrayEquals(new int[] {0, 1, 2}, str.left(2).indexesOf(CString.fromString("")));
+		assertArrayEquals(new int[0], str.indexesOf(CString.fromString("b")));
+	}
+
+	@Test
+	public void testPatternReuse() {
+		CStringPattern pattern = new CStringPattern(CString.fromString("nas"));
+		CString str = CString.fromString("ananas");
+		CString str2 = CString.fromString("nasnas");
+
+		assertEquals(3, pattern.length());
+		assertEquals(3, str.indexOf(pattern));
+		assertEquals(3, str2.lastIndexOf(pattern));
+		assertArrayEquals(new int[] {0, 3}, str2.indexesOf(pattern));
+	}
+
 	@Test
 	public void testSubstring() {
 		CString str1 = new CString(new String("Ananas").toCharArray());
@@ -166,6 +237,8 @@ public class CStringTests {
 		assertEquals("ababas", str.replaceAll('n', 'b').toString());
 		assertEquals("nnnnns", str.replaceAll('a', 'n').toString());
 		assertEquals(" s sssss ", str2.replaceAll('a', 's').toString());
+		assertEquals("anaa", str.substring(2, 6).replaceAll('s', 'a').toString());
+		assertEquals("nana", str.substring(1, 5).replaceAll('z', 'a').toString());
 	}
 
 	@Test
@@ -187,4 +260,22 @@ public class CStringTests {
 
 	}
 
+	@Test
+	public void testReplaceWithLimit() {
+		CString str = new CString(new String("xananasx").toCharArray(), 1, 6);
+		CString sub1 = CString.fromString("a");
+		CString sub2 = CString.fromString("oo");
+
+		assertEquals("oonanas", str.replace(sub1, sub2, 1).toString());
+		assertEquals("oonoonas", str.replace(sub1, sub2, 2).toString());
+		assertEquals("oonoonoos", str.replace(sub1, sub2, 10).toString());
+		assertEquals("ananas", str.replace(sub1, sub2, 0).toString());
+		assertEquals("-a-nanas", str.replace(CString.fromString(""), CString.fromString("-"), 2).toString());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalReplaceLimit() {
+		CString.fromString("ananas").replace(CString.fromString("a"), CString.fromString("b"), -1);
+	}
+
 }
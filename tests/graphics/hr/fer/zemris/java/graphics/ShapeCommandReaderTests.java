@@ -0,0 +1,123 @@
+package hr.fer.zemris.java.graphics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+
+public class ShapeCommandReaderTests {
+
+	private static int render(String input, BWRaster raster) throws IOException {
+		try (ShapeCommandReader reader = new ShapeCommandReader(new StringReader(input))) {
+			return reader.render(raster);
+		}
+	}
+
+	@Test
+	public void testRender() throws IOException {
+		BWRaster raster = new BWRasterMem(10, 10);
+
+		int commands = render("4\r\nrectangle 0 0 4 2\n  SQUARE\t1 1 2\nFlip\ncircle 5 5 1", raster);
+
+		assertEquals(4, commands);
+		assertTrue(raster.isTurnedOn(0, 0));
+		assertTrue(raster.isTurnedOn(1, 1));
+		assertTrue(raster.isTurnedOn(2, 2));
+		assertFalse(raster.isTurnedOn(4, 0));
+		assertTrue(raster.isTurnedOn(5, 5));
+	}
+
+	@Test
+	public void testFlip() throws IOException {
+		BWRaster raster = new BWRasterMem(10, 10);
+
+		render("3\nRECTANGLE 0 0 4 1\nFLIP\nRECTANGLE 2 0 4 1\n", raster);
+
+		assertTrue(raster.isTurnedOn(1, 0));
+		assertFalse(raster.isTurnedOn(2, 0));
+		assertFalse(raster.isTurnedOn(3, 0));
+		assertTrue(raster.isTurnedOn(5, 0));
+	}
+
+	@Test
+	public void testFlipTwice() throws IOException {
+		BWRaster raster = new BWRasterMem(10, 10);
+
+		render("5\nRECTANGLE 0 0 4 1\nFLIP\nRECTANGLE 2 0 4 1\nFLIP\nRECTANGLE 4 0 4 1\n", raster);
+
+		assertTrue(raster.isTurnedOn(1, 0));
+		assertFalse(raster.isTurnedOn(2, 0));
+		assertFalse(raster.isTurnedOn(4, 0));
+		assertFalse(raster.isTurnedOn(5, 0));
+		assertTrue(raster.isTurnedOn(6, 0));
+	}
+
+	@Test
+	public void testShapesNearIntLimits() throws IOException {
+		BWRaster raster = new BWRasterMem(10, 10);
+
+		int commands = render("4\nRECTANGLE 2147483647 0 5 5\nCIRCLE 2147483647 0 5\n"
+				+ "SQUARE -2147483648 -2147483648 2147483647\nELLIPSE -2147483648 0 2147483647 3\n", raster);
+
+		assertEquals(4, commands);
+		assertEquals(0, raster.cardinality());
+	}
+
+	@Test
+	public void testNoCommands() throws IOException {
+		assertEquals(0, render("0\n", new BWRasterMem(1, 1)));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testUnknownCommand() throws IOException {
+		render("1\nTRIANGLE 1 2 3\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCommandPrefix() throws IOException {
+		render("1\nCIRC 1 2 3\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMissingArgument() throws IOException {
+		render("1\nSQUARE 1 2\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testInvalidNumber() throws IOException {
+		render("1\nSQUARE 1 2x 3\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNumberTooLarge() throws IOException {
+		render("1\nSQUARE 1 2 2147483648\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeCommandCount() throws IOException {
+		render("-1\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTooFewCommands() throws IOException {
+		render("2\nFLIP\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalShape() throws IOException {
+		render("1\nCIRCLE 1 1 0\n", new BWRasterMem(10, 10));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullReader() {
+		new ShapeCommandReader(null);
+	}
+
+}
@@ -0,0 +1,211 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.assertSamePixels;
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BWRasterBitsTests {
+
+	private final static int[] BOUNDARIES = {0, 1, 62, 63, 64, 65, 127, 128, 129, 191, 192, 200};
+
+	private static void assertSameCounts(BWRaster expected, BWRasterBits counting) {
+		assertTrue(counting.isCountingPixels());
+		assertEquals(expected.cardinality(), counting.cardinality());
+		assertArrayEquals(expected.rowCounts(), counting.rowCounts());
+		assertArrayEquals(expected.columnCounts(), counting.columnCounts());
+	}
+
+	@Test
+	public void testSameAsMem() {
+		BWRaster expected = new BWRasterMem(200, 40);
+		BWRasterBits raster = new BWRasterBits(200, 40);
+
+		drawRandom(29, expected, raster);
+
+		assertSamePixels(expected, raster);
+	}
+
+	@Test
+	public void testCountsSameAsRecount() {
+		for (int seed = 0; seed < 5; ++seed) {
+			BWRaster expected = new BWRasterMem(150, 30);
+			BWRasterBits recount = new BWRasterBits(150, 30);
+			BWRasterBits counting = new BWRasterBits(150, 30, true);
+
+			drawRandom(seed, expected, recount, counting);
+
+			assertFalse(recount.isCountingPixels());
+			assertSamePixels(expected, counting);
+			assertSameCounts(recount, counting);
+			assertSameCounts(expected, counting);
+		}
+	}
+
+	@Test
+	public void testCountsAfterSetWord() {
+		BWRasterBits recount = new BWRasterBits(130, 3);
+		BWRasterBits counting = new BWRasterBits(130, 3, true);
+		recount.fillSpan(1, 0, 130);
+		counting.fillSpan(1, 0, 130);
+
+		for (BWRasterBits raster : new BWRasterBits[] {recount, counting}) {
+			raster.setWord(0, 0, 0xF0F0L);
+			raster.setWord(0, 2, -1L);
+			raster.setWord(1, 1, 0L);
+			raster.setWord(1, 2, 0b10L);
+			raster.setWord(2, 1, Long.MIN_VALUE);
+			raster.setWord(2, 1, 1L);
+		}
+
+		assertSameCounts(recount, counting);
+		assertArrayEquals(new int[] {10, 65, 1}, counting.rowCounts());
+	}
+
+	@Test
+	public void testCountsAfterFlipSpans() {
+		BWRasterBits recount = new BWRasterBits(200, 2);
+		BWRasterBits counting = new BWRasterBits(200, 2, true);
+
+		for (int x0 : BOUNDARIES) {
+			for (int x1 : BOUNDARIES) {
+				if (x0 <= x1) {
+					recount.flipSpan((x0 + x1) & 1, x0, x1);
+					counting.flipSpan((x0 + x1) & 1, x0, x1);
+				}
+			}
+		}
+		recount.enableFlipMode();
+		counting.enableFlipMode();
+		recount.fillSpan(1, 5, 190);
+		counting.fillSpan(1, 5, 190);
+		recount.turnOn(0, 0);
+		counting.turnOn(0, 0);
+
+		assertSameCounts(recount, counting);
+	}
+
+	@Test
+	public void testCountsAfterClear() {
+		BWRasterBits recount = new BWRasterBits(200, 4);
+		BWRasterBits counting = new BWRasterBits(200, 4, true);
+
+		for (BWRasterBits raster : new BWRasterBits[] {recount, counting}) {
+			raster.fillRect(10, 0, 150, 4);
+			raster.clearSpan(1, 63, 129);
+			raster.clearSpan(2, 0, 200);
+			raster.turnOff(10, 0);
+			raster.turnOff(9, 0);
+			raster.turnOff(159, 3);
+		}
+
+		assertSameCounts(recount, counting);
+		assertEquals(149 + 84 + 0 + 149, counting.cardinality());
+		counting.clear();
+		counting.turnOn(199, 3);
+		assertArrayEquals(new int[] {0, 0, 0, 1}, counting.rowCounts());
+		assertEquals(1, counting.cardinality());
+	}
+
+	@Test
+	public void testSpansAtWordBoundaries() {
+		for (int x0 : BOUNDARIES) {
+			for (int x1 : BOUNDARIES) {
+				if (x1 < x0) {
+					continue;
+				}
+				BWRaster expected = new BWRasterMem(200, 3);
+				BWRasterBits raster = new BWRasterBits(200, 3);
+				for (BWRaster r : new BWRaster[] {expected, raster}) {
+					r.fillSpan(0, x0, x1);
+					r.fillSpan(1, 0, 200);
+					r.clearSpan(1, x0, x1);
+					r.fillSpan(2, 10, 150);
+					r.flipSpan(2, x0, x1);
+				}
+
+				assertSamePixels(expected, raster);
+				assertEquals(expected.cardinality(), raster.cardinality());
+			}
+		}
+	}
+
+	@Test
+	public void testFillSpanInFlipMode() {
+		BWRasterBits raster = new BWRasterBits(130, 1);
+		raster.fillSpan(0, 60, 70);
+
+		raster.enableFlipMode();
+		raster.fillSpan(0, 0, 130);
+
+		assertEquals(120, raster.cardinality());
+		assertFalse(raster.isTurnedOn(63, 0));
+		assertFalse(raster.isTurnedOn(64, 0));
+		assertTrue(raster.isTurnedOn(59, 0));
+		assertTrue(raster.isTurnedOn(129, 0));
+	}
+
+	@Test
+	public void testFillRectOfWholeWord() {
+		BWRasterBits raster = new BWRasterBits(192, 4);
+
+		raster.fillRect(64, 1, 64, 2);
+
+		assertEquals(128, raster.cardinality());
+		assertEquals(0L, raster.getWord(1, 0));
+		assertEquals(-1L, raster.getWord(1, 1));
+		assertEquals(-1L, raster.getWord(2, 1));
+		assertEquals(0L, raster.getWord(1, 2));
+		assertEquals(0L, raster.getWord(3, 1));
+	}
+
+	@Test
+	public void testFillRectAcrossWords() {
+		BWRasterBits raster = new BWRasterBits(200, 2);
+
+		raster.fillRect(63, 0, 130, 2);
+
+		assertEquals(1L << 63, raster.getWord(0, 0));
+		assertEquals(-1L, raster.getWord(0, 1));
+		assertEquals(-1L, raster.getWord(1, 2));
+		assertEquals(1L, raster.getWord(1, 3));
+		assertTrue(raster.isTurnedOn(192, 1));
+		assertFalse(raster.isTurnedOn(193, 1));
+	}
+
+	@Test
+	public void testFillRectToLastPixel() {
+		BWRasterBits raster = new BWRasterBits(65, 3);
+
+		raster.fillRect(0, 0, 65, 3);
+
+		assertEquals(65 * 3, raster.cardinality());
+		assertTrue(raster.isTurnedOn(64, 2));
+		assertEquals(1L, raster.getWord(2, 1));
+	}
+
+	@Test
+	public void testEmptyRect() {
+		BWRasterBits raster = new BWRasterBits(64, 64);
+
+		raster.fillRect(64, 64, 0, 0);
+		raster.fillRect(10, 10, 0, 5);
+
+		assertEquals(0, raster.cardinality());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSpanPastLastWord() {
+		new BWRasterBits(128, 1).fillSpan(0, 64, 129);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRectOutOfBounds() {
+		new BWRasterBits(64, 64).fillRect(1, 0, 64, 1);
+	}
+
+}
@@ -0,0 +1,109 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.assertSamePixels;
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BWRasterConcurrentTests {
+
+	private final static int THREADS = 4;
+
+	private static void runInThreads(Runnable[] tasks) throws InterruptedException {
+		Thread[] threads = new Thread[tasks.length];
+		for (int i = 0; i < tasks.length; ++i) {
+			threads[i] = new Thread(tasks[i]);
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+	}
+
+	@Test
+	public void testSameAsMem() {
+		BWRaster expected = new BWRasterMem(150, 40);
+		BWRasterConcurrent raster = new BWRasterConcurrent(150, 40);
+
+		drawRandom(19, expected, raster);
+
+		assertSamePixels(expected, raster);
+	}
+
+	@Test
+	public void testConcurrentTurnOn() throws InterruptedException {
+		BWRasterConcurrent raster = new BWRasterConcurrent(1000, 20);
+		Runnable[] tasks = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; ++t) {
+			int first = t;
+			tasks[t] = () -> {
+				for (int y = 0; y < raster.getHeight(); ++y) {
+					for (int x = first; x < raster.getWidth(); x += THREADS) {
+						raster.turnOn(x, y);
+					}
+				}
+			};
+		}
+
+		runInThreads(tasks);
+
+		assertEquals(1000 * 20, raster.cardinality());
+	}
+
+	@Test
+	public void testConcurrentFlips() throws InterruptedException {
+		BWRasterConcurrent raster = new BWRasterConcurrent(130, 2);
+		Runnable[] tasks = new Runnable[THREADS];
+		for (int t = 0; t < THREADS; ++t) {
+			tasks[t] = () -> {
+				BWRaster view = raster.withFlipMode(true);
+				for (int i = 0; i < 10001; ++i) {
+					view.fillSpan(0, 0, 130);
+					raster.flipSpan(1, 1, 129);
+				}
+			};
+		}
+
+		runInThreads(tasks);
+
+		// every pixel was flipped an even number of times
+		assertEquals(0, raster.cardinality());
+	}
+
+	@Test
+	public void testFlipModeView() {
+		BWRasterConcurrent raster = new BWRasterConcurrent(10, 1);
+		BWRaster view = raster.withFlipMode(true);
+		raster.turnOn(3, 0);
+
+		view.turnOn(3, 0);
+		view.turnOn(4, 0);
+		raster.turnOn(5, 0);
+		raster.fillSpan(0, 5, 7, true);
+
+		assertFalse(raster.isTurnedOn(3, 0));
+		assertTrue(raster.isTurnedOn(4, 0));
+		assertFalse(raster.isTurnedOn(5, 0));
+		assertTrue(raster.isTurnedOn(6, 0));
+		assertTrue(view.isTurnedOn(6, 0));
+	}
+
+	@Test
+	public void testViewFlipModeIsIndependent() {
+		BWRasterConcurrent raster = new BWRasterConcurrent(10, 1);
+		BWRaster view = raster.withFlipMode(false);
+
+		raster.enableFlipMode();
+		view.turnOn(1, 0);
+		view.turnOn(1, 0);
+		raster.turnOn(2, 0);
+		raster.turnOn(2, 0);
+
+		assertTrue(raster.isTurnedOn(1, 0));
+		assertFalse(raster.isTurnedOn(2, 0));
+	}
+
+}
@@ -0,0 +1,107 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.assertSamePixels;
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class BWRasterMappedTests {
+
+	@Test
+	public void testSameAsMem() throws IOException {
+		Path file = Files.createTempFile("raster", ".bin");
+		try (BWRasterMapped raster = BWRasterMapped.create(file, 150, 40)) {
+			BWRaster expected = new BWRasterMem(150, 40);
+
+			drawRandom(7, expected, raster);
+
+			assertSamePixels(expected, raster);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testReopen() throws IOException {
+		Path file = Files.createTempFile("raster", ".bin");
+		try {
+			BWRaster expected = new BWRasterMem(70, 5);
+			try (BWRasterMapped raster = BWRasterMapped.create(file, 70, 5)) {
+				drawRandom(3, expected, raster);
+			}
+
+			try (BWRasterMapped raster = BWRasterMapped.open(file)) {
+				assertSamePixels(expected, raster);
+				raster.clear();
+				assertEquals(0, raster.cardinality());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testCreateTruncatesFile() throws IOException {
+		Path file = Files.createTempFile("raster", ".bin");
+		try {
+			try (BWRasterMapped raster = BWRasterMapped.create(file, 10, 10)) {
+				raster.fillRect(0, 0, 10, 10);
+			}
+
+			try (BWRasterMapped raster = BWRasterMapped.create(file, 10, 10)) {
+				assertFalse(raster.isTurnedOn(5, 5));
+				assertNull(raster.getDirtyRegion());
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void testDirtyRegion() throws IOException {
+		Path file = Files.createTempFile("raster", ".bin");
+		try (BWRasterMapped raster = BWRasterMapped.create(file, 100, 10)) {
+			raster.fillSpan(3, 10, 20);
+			raster.turnOn(70, 6);
+
+			assertEquals(new BoundingBox(10, 3, 70, 6), raster.getDirtyRegion());
+			raster.markClean();
+			assertNull(raster.getDirtyRegion());
+			raster.clear();
+			assertTrue(raster.getDirtyRegion().contains(70, 6));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected=IOException.class)
+	public void testOpenInvalidFile() throws IOException {
+		Path file = Files.createTempFile("raster", ".bin");
+		try {
+			Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+
+			BWRasterMapped.open(file).close();
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalSpan() throws IOException {
+		Path file = Files.createTempFile("raster", ".bin");
+		try (BWRasterMapped raster = BWRasterMapped.create(file, 10, 10)) {
+			raster.fillSpan(0, 5, 11);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+}
@@ -0,0 +1,93 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.assertSamePixels;
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BWRasterSparseTests {
+
+	@Test
+	public void testSameAsMem() {
+		BWRaster expected = new BWRasterMem(130, 30);
+		BWRasterSparse raster = new BWRasterSparse(130, 30);
+
+		drawRandom(11, expected, raster);
+
+		assertSamePixels(expected, raster);
+		assertEquals(expected.cardinality(), raster.cardinality());
+		assertArrayEquals(expected.rowCounts(), raster.rowCounts());
+		assertArrayEquals(expected.columnCounts(), raster.columnCounts());
+	}
+
+	@Test
+	public void testRunsMerge() {
+		BWRasterSparse raster = new BWRasterSparse(20, 1);
+
+		raster.fillSpan(0, 2, 5);
+		raster.fillSpan(0, 8, 10);
+		raster.turnOn(5, 0);
+		raster.fillSpan(0, 6, 8);
+
+		assertEquals(1, raster.getRunCount(0));
+		assertEquals(2, raster.getRunStart(0, 0));
+		assertEquals(10, raster.getRunEnd(0, 0));
+	}
+
+	@Test
+	public void testRunsSplit() {
+		BWRasterSparse raster = new BWRasterSparse(20, 1);
+
+		raster.fillSpan(0, 0, 20);
+		raster.clearSpan(0, 3, 5);
+		raster.turnOff(0, 0);
+		raster.flipSpan(0, 10, 12);
+
+		assertEquals(3, raster.getRunCount(0));
+		assertEquals(1, raster.getRunStart(0, 0));
+		assertEquals(3, raster.getRunEnd(0, 0));
+		assertEquals(5, raster.getRunStart(0, 1));
+		assertEquals(10, raster.getRunEnd(0, 1));
+		assertEquals(12, raster.getRunStart(0, 2));
+		assertEquals(20, raster.getRunEnd(0, 2));
+	}
+
+	@Test
+	public void testRunsStaySeparate() {
+		BWRasterSparse raster = new BWRasterSparse(130, 30);
+
+		drawRandom(5, raster);
+
+		for (int y = 0; y < raster.getHeight(); ++y) {
+			for (int i = 0; i < raster.getRunCount(y); ++i) {
+				assertTrue(raster.getRunStart(y, i) < raster.getRunEnd(y, i));
+				if (i > 0) {
+					assertTrue(raster.getRunEnd(y, i - 1) < raster.getRunStart(y, i));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testClear() {
+		BWRasterSparse raster = new BWRasterSparse(10, 10);
+		raster.fillRect(2, 2, 5, 5);
+
+		raster.clear();
+
+		assertEquals(0, raster.getRunCount(4));
+		assertEquals(0, raster.cardinality());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalRun() {
+		BWRasterSparse raster = new BWRasterSparse(10, 10);
+		raster.turnOn(1, 1);
+
+		raster.getRunStart(1, 1);
+	}
+
+}
@@ -0,0 +1,107 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.assertSamePixels;
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class BWRasterTiledTests {
+
+	@Test
+	public void testSameAsMem() {
+		BWRaster expected = new BWRasterMem(200, 70);
+		BWRasterTiled raster = new BWRasterTiled(200, 70);
+
+		drawRandom(13, expected, raster);
+
+		assertSamePixels(expected, raster);
+		assertArrayEquals(expected.rowCounts(), raster.rowCounts());
+	}
+
+	@Test
+	public void testCounts() {
+		BWRaster expected = new BWRasterMem(300, 200);
+		BWRasterTiled raster = new BWRasterTiled(300, 200);
+		drawRandom(17, expected, raster);
+		expected.clearSpan(100, 0, 300);
+		raster.clearSpan(100, 0, 300);
+		BoundingBox[] regions = {
+				new BoundingBox(0, 0, 299, 199), new BoundingBox(63, 63, 64, 64), new BoundingBox(60, 0, 200, 0),
+				new BoundingBox(-50, 120, 70, 500), new BoundingBox(128, 64, 191, 127), new BoundingBox(299, 199, 400, 400),
+				new BoundingBox(300, 0, 310, 10)
+		};
+
+		assertEquals(expected.cardinality(), raster.cardinality());
+		assertArrayEquals(expected.rowCounts(), raster.rowCounts());
+		assertArrayEquals(expected.columnCounts(), raster.columnCounts());
+		for (BoundingBox region : regions) {
+			assertEquals(region.toString(), expected.cardinality(region), raster.cardinality(region));
+		}
+	}
+
+	@Test
+	public void testCountsOfUnallocatedTiles() {
+		BWRasterTiled raster = new BWRasterTiled(1000, 1000);
+		raster.turnOn(999, 0);
+		raster.fillSpan(500, 100, 300);
+
+		assertEquals(201, raster.cardinality());
+		assertEquals(0, raster.cardinality(new BoundingBox(0, 0, 900, 400)));
+		assertEquals(1, raster.rowCounts()[0]);
+		assertEquals(200, raster.rowCounts()[500]);
+		assertEquals(1, raster.columnCounts()[999]);
+		assertEquals(5, raster.getAllocatedTileCount());
+	}
+
+	@Test
+	public void testTilesAllocatedLazily() {
+		BWRasterTiled raster = new BWRasterTiled(100000, 100000);
+
+		raster.turnOn(99999, 99999);
+		raster.fillSpan(500, 60, 70);
+		raster.turnOff(5000, 5000);
+		raster.clearSpan(7000, 0, 100000);
+
+		assertEquals(3, raster.getAllocatedTileCount());
+		assertTrue(raster.isTurnedOn(99999, 99999));
+		assertTrue(raster.isTurnedOn(64, 500));
+		assertFalse(raster.isTurnedOn(70, 500));
+		assertFalse(raster.isTurnedOn(5000, 5000));
+	}
+
+	@Test
+	public void testClearReleasesTiles() {
+		BWRasterTiled raster = new BWRasterTiled(300, 300);
+		raster.fillRect(0, 0, 300, 300);
+
+		raster.clear();
+
+		assertEquals(0, raster.getAllocatedTileCount());
+		assertFalse(raster.isTurnedOn(150, 150));
+	}
+
+	@Test
+	public void testWords() {
+		BWRasterTiled raster = new BWRasterTiled(100, 3);
+
+		raster.setWord(1, 0, 0L);
+		assertEquals(0, raster.getAllocatedTileCount());
+		raster.setWord(1, 1, -1L);
+
+		assertEquals(2, raster.getWordsPerRow());
+		assertEquals(1, raster.getAllocatedTileCount());
+		assertEquals(-1L >>> 28, raster.getWord(1, 1));
+		assertTrue(raster.isTurnedOn(99, 1));
+		assertEquals(0L, raster.getWord(2, 0));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalWord() {
+		new BWRasterTiled(100, 3).getWord(0, 2);
+	}
+
+}
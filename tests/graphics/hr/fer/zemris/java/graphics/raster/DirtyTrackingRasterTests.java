@@ -0,0 +1,101 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class DirtyTrackingRasterTests {
+
+	private static DirtyTrackingRaster[] rasters(int width, int height) {
+		return new DirtyTrackingRaster[] {
+				new BWRasterMem(width, height),
+				new BWRasterBits(width, height),
+				new BWRasterBits(width, height, true),
+				new BWRasterSparse(width, height)
+		};
+	}
+
+	@Test
+	public void testDirtyRegion() {
+		for (DirtyTrackingRaster raster : rasters(200, 50)) {
+			assertNull(raster.getDirtyRegion());
+
+			raster.fillSpan(10, 100, 150);
+			raster.turnOn(5, 20);
+			raster.clearSpan(30, 60, 61);
+
+			assertEquals(new BoundingBox(5, 10, 149, 30), raster.getDirtyRegion());
+		}
+	}
+
+	@Test
+	public void testMarkClean() {
+		for (DirtyTrackingRaster raster : rasters(200, 50)) {
+			raster.fillRect(0, 0, 200, 50);
+
+			raster.markClean();
+			assertNull(raster.getDirtyRegion());
+			raster.flipSpan(49, 199, 200);
+
+			assertEquals(new BoundingBox(199, 49, 199, 49), raster.getDirtyRegion());
+		}
+	}
+
+	@Test
+	public void testEmptySpanIsClean() {
+		for (DirtyTrackingRaster raster : rasters(20, 5)) {
+			raster.fillSpan(2, 7, 7);
+
+			assertNull(raster.getDirtyRegion());
+		}
+	}
+
+	@Test
+	public void testClearMarksDrawnRegion() {
+		for (DirtyTrackingRaster raster : rasters(200, 50)) {
+			raster.fillRect(120, 3, 10, 4);
+			raster.markClean();
+
+			raster.clear();
+
+			BoundingBox region = raster.getDirtyRegion();
+			assertTrue(region.contains(120, 3));
+			assertTrue(region.contains(129, 6));
+			assertEquals(0, raster.cardinality());
+		}
+	}
+
+	@Test
+	public void testClearTwice() {
+		for (DirtyTrackingRaster raster : rasters(200, 50)) {
+			raster.fillRect(120, 3, 10, 4);
+			raster.clear();
+			raster.markClean();
+
+			raster.clear();
+
+			assertNull(raster.getDirtyRegion());
+		}
+	}
+
+	@Test
+	public void testClearAfterRandomDrawing() {
+		for (DirtyTrackingRaster raster : rasters(150, 40)) {
+			drawRandom(17, raster);
+
+			raster.clear();
+
+			assertEquals(0, raster.cardinality());
+			for (int y = 0; y < raster.getHeight(); ++y) {
+				for (int x = 0; x < raster.getWidth(); ++x) {
+					assertFalse(raster.isTurnedOn(x, y));
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.assertSamePixels;
+import static hr.fer.zemris.java.graphics.raster.RasterTesting.drawRandom;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class RasterOpsTests {
+
+	private final static int[][] OFFSETS = {
+			{0, 0}, {1, 0}, {63, 2}, {64, -1}, {-1, 1}, {-65, -3}, {-130, 0},
+			{150, 0}, {0, 40}, {-300, 0}, {17, -40}, {100, 20}
+	};
+
+	private static void composite(int operation, BWRaster dest, BWRaster src, int dx, int dy) {
+		switch (operation) {
+		case 0:
+			RasterOps.or(dest, src, dx, dy);
+			break;
+		case 1:
+			RasterOps.and(dest, src, dx, dy);
+			break;
+		case 2:
+			RasterOps.xor(dest, src, dx, dy);
+			break;
+		default:
+			RasterOps.andNot(dest, src, dx, dy);
+		}
+	}
+
+	private static boolean pixel(int operation, boolean pixel, boolean srcPixel) {
+		switch (operation) {
+		case 0:
+			return pixel | srcPixel;
+		case 1:
+			return pixel & srcPixel;
+		case 2:
+			return pixel ^ srcPixel;
+		default:
+			return pixel & !srcPixel;
+		}
+	}
+
+	private static BWRaster expected(int operation, BWRaster dest, BWRaster src, int dx, int dy) {
+		BWRaster expected = new BWRasterMem(dest.getWidth(), dest.getHeight());
+		for (int y = 0; y < dest.getHeight(); ++y) {
+			for (int x = 0; x < dest.getWidth(); ++x) {
+				boolean result = dest.isTurnedOn(x, y);
+				int srcX = x - dx;
+				int srcY = y - dy;
+				if (srcX >= 0 && srcX < src.getWidth() && srcY >= 0 && srcY < src.getHeight()) {
+					result = pixel(operation, result, src.isTurnedOn(srcX, srcY));
+				}
+				if (result) {
+					expected.turnOn(x, y);
+				}
+			}
+		}
+		return expected;
+	}
+
+	private static void testComposite(int operation) {
+		for (int[] offset : OFFSETS) {
+			BWRaster src = new BWRasterBits(130, 30);
+			BWRaster srcMem = new BWRasterMem(130, 30);
+			drawRandom(offset[0], src, srcMem);
+			BWRaster[] dests = {
+					new BWRasterMem(150, 40),
+					new BWRasterBits(150, 40),
+					new BWRasterTiled(150, 40),
+					new BWRasterConcurrent(150, 40)
+			};
+			drawRandom(offset[1], dests);
+			BWRaster expected = expected(operation, dests[0], srcMem, offset[0], offset[1]);
+
+			for (BWRaster dest : dests) {
+				composite(operation, dest, src, offset[0], offset[1]);
+				assertSamePixels(expected, dest);
+				// bits past the right edge of a destination row must stay off
+				assertEquals(expected.cardinality(), dest.cardinality());
+			}
+		}
+	}
+
+	@Test
+	public void testOr() {
+		testComposite(0);
+	}
+
+	@Test
+	public void testAnd() {
+		testComposite(1);
+	}
+
+	@Test
+	public void testXor() {
+		testComposite(2);
+	}
+
+	@Test
+	public void testAndNot() {
+		testComposite(3);
+	}
+
+	@Test
+	public void testWithoutOffset() {
+		BWRaster dest = new BWRasterBits(70, 3);
+		BWRaster src = new BWRasterBits(3, 70);
+		dest.fillSpan(0, 0, 70);
+		src.fillSpan(0, 0, 3);
+
+		RasterOps.xor(dest, src);
+
+		assertEquals(67, dest.cardinality());
+		assertFalse(dest.isTurnedOn(2, 0));
+		assertTrue(dest.isTurnedOn(3, 0));
+	}
+
+	@Test
+	public void testOperationTruthTables() {
+		long word = 0b1100L;
+		long srcWord = 0b1010L;
+		long[] expected = {0b1110L, 0b1000L, 0b0110L, 0b0100L};
+		CompositeOperation[] operations = CompositeOperation.values();
+
+		assertEquals(4, operations.length);
+		for (int i = 0; i < operations.length; ++i) {
+			BWRasterBits dest = new BWRasterBits(70, 1);
+			dest.setWord(0, 0, word);
+			dest.setWord(0, 1, word);
+
+			operations[i].updateWord(dest, 0, 0, srcWord, -1L);
+			operations[i].updateWord(dest, 0, 1, srcWord, 0b0011L);
+
+			assertEquals(operations[i].name(), expected[i], operations[i].apply(word, srcWord));
+			assertEquals(operations[i].name(), expected[i], dest.getWord(0, 0));
+			assertEquals(operations[i].name(), expected[i] & 0b0011L | word & 0b1100L, dest.getWord(0, 1));
+		}
+	}
+
+	@Test
+	public void testInvert() {
+		BWRaster[] rasters = {
+				new BWRasterMem(150, 40),
+				new BWRasterBits(150, 40),
+				new BWRasterTiled(150, 40),
+				new BWRasterConcurrent(150, 40),
+				new BWRasterSparse(150, 40)
+		};
+		drawRandom(23, rasters);
+		long cardinality = rasters[0].cardinality();
+
+		for (BWRaster raster : rasters) {
+			RasterOps.invert(raster);
+			assertSamePixels(rasters[0], raster);
+		}
+		assertEquals(150 * 40 - cardinality, rasters[0].cardinality());
+	}
+
+	@Test
+	public void testConcurrentXor() throws InterruptedException {
+		BWRasterConcurrent dest = new BWRasterConcurrent(200, 10);
+		BWRasterBits src = new BWRasterBits(100, 10);
+		src.fillRect(0, 0, 100, 10);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; ++t) {
+			int dx = t * 30;
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < 2000; ++i) {
+					RasterOps.xor(dest, src, dx, 0);
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		// every source was applied an even number of times
+		assertEquals(0, dest.cardinality());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullSource() {
+		RasterOps.or(new BWRasterMem(1, 1), null);
+	}
+
+}
@@ -0,0 +1,98 @@
+package hr.fer.zemris.java.graphics.raster;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+/**
+ * Helper methods which apply the same random operations to several rasters
+ * and compare them pixel by pixel, so that each raster implementation can be
+ * checked against {@link BWRasterMem}.
+ *
+ * @author labramusic
+ *
+ */
+final class RasterTesting {
+
+	/**
+	 * Number of operations applied by {@link #drawRandom(long, BWRaster...)}.
+	 */
+	private final static int OPERATIONS = 2000;
+
+	/**
+	 * Private constructor which prevents instantiation.
+	 */
+	private RasterTesting() {
+	}
+
+	/**
+	 * Applies the same sequence of random pixel, span and rectangle
+	 * operations to each of the given rasters, which must be of the
+	 * same dimensions.
+	 * @param seed seed of the random sequence
+	 * @param rasters rasters
+	 */
+	static void drawRandom(long seed, BWRaster... rasters) {
+		Random random = new Random(seed);
+		int width = rasters[0].getWidth();
+		int height = rasters[0].getHeight();
+		for (int i = 0; i < OPERATIONS; ++i) {
+			// the raster is cleared rarely, so that the pixels can pile up
+			int operation = random.nextInt(100) == 0 ? -1 : random.nextInt(10);
+			int x = random.nextInt(width);
+			int y = random.nextInt(height);
+			int x1 = x + random.nextInt(width - x + 1);
+			int y1 = y + random.nextInt(height - y + 1);
+			for (BWRaster raster : rasters) {
+				switch (operation) {
+				case -1:
+					raster.clear();
+					break;
+				case 0:
+					raster.enableFlipMode();
+					break;
+				case 1:
+					raster.disableFlipMode();
+					break;
+				case 2:
+					raster.turnOff(x, y);
+					break;
+				case 3:
+					raster.turnOn(x, y);
+					break;
+				case 4:
+					raster.clearSpan(y, x, x1);
+					break;
+				case 5:
+					raster.flipSpan(y, x, x1);
+					break;
+				case 6:
+					raster.fillRect(x, y, x1 - x, y1 - y);
+					break;
+				default:
+					raster.fillSpan(y, x, x1);
+				}
+			}
+		}
+		for (BWRaster raster : rasters) {
+			raster.disableFlipMode();
+		}
+	}
+
+	/**
+	 * Asserts that both rasters have the same dimensions and
+	 * the same pixels turned on.
+	 * @param expected expected raster
+	 * @param actual actual raster
+	 */
+	static void assertSamePixels(BWRaster expected, BWRaster actual) {
+		assertEquals(expected.getWidth(), actual.getWidth());
+		assertEquals(expected.getHeight(), actual.getHeight());
+		for (int y = 0; y < expected.getHeight(); ++y) {
+			for (int x = 0; x < expected.getWidth(); ++x) {
+				assertEquals("Pixel (" + x + ", " + y + ")", expected.isTurnedOn(x, y), actual.isTurnedOn(x, y));
+			}
+		}
+	}
+
+}
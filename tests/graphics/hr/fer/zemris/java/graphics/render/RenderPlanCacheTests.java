@@ -0,0 +1,166 @@
+package hr.fer.zemris.java.graphics.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterBits;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.Circle;
+import hr.fer.zemris.java.graphics.shapes.Ellipse;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.Rectangle;
+import hr.fer.zemris.java.graphics.shapes.Square;
+
+public class RenderPlanCacheTests {
+
+	private static void assertSamePixels(BWRaster expected, BWRaster actual) {
+		for (int y = 0; y < expected.getHeight(); ++y) {
+			for (int x = 0; x < expected.getWidth(); ++x) {
+				assertEquals("Pixel (" + x + ", " + y + ")", expected.isTurnedOn(x, y), actual.isTurnedOn(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testDrawSameAsShape() {
+		RenderPlanCache cache = new RenderPlanCache();
+		GeometricShape[] shapes = {
+				new Circle(20, 15, 7), new Circle(-3, 2, 6), new Circle(78, 38, 9),
+				new Ellipse(40, 20, 12, 5), new Ellipse(2, 39, 3, 8),
+				new Rectangle(-5, 30, 20, 20), new Rectangle(70, 1, 11, 3), new Square(33, 33, 4)
+		};
+		BoundingBox clip = new BoundingBox(10, 5, 60, 30);
+
+		for (GeometricShape shape : shapes) {
+			BWRaster expected = new BWRasterMem(80, 40);
+			BWRaster actual = new BWRasterBits(80, 40);
+			BWRaster expectedClipped = new BWRasterMem(80, 40);
+			BWRaster actualClipped = new BWRasterMem(80, 40);
+
+			shape.draw(expected);
+			cache.draw(shape, actual);
+			shape.draw(expectedClipped, clip);
+			cache.draw(shape, actualClipped, clip);
+
+			assertSamePixels(expected, actual);
+			assertSamePixels(expectedClipped, actualClipped);
+		}
+	}
+
+	@Test
+	public void testHitsAndMisses() {
+		RenderPlanCache cache = new RenderPlanCache();
+		BWRaster raster = new BWRasterMem(50, 50);
+
+		cache.draw(new Circle(10, 10, 5), raster);
+		cache.draw(new Circle(30, 30, 5), raster);
+		cache.draw(new Ellipse(30, 30, 5, 5), raster);
+		cache.draw(new Circle(40, 10, 5), raster);
+
+		assertEquals(2, cache.size());
+		assertEquals(2, cache.getMisses());
+		assertEquals(2, cache.getHits());
+		assertSame(cache.getPlan(new Circle(0, 0, 5)), cache.getPlan(new Circle(1, 1, 5)));
+	}
+
+	@Test
+	public void testEviction() {
+		RenderPlanCache cache = new RenderPlanCache(2);
+		RenderPlan first = cache.getPlan(new Square(0, 0, 1));
+		cache.getPlan(new Square(0, 0, 2));
+
+		cache.getPlan(new Square(0, 0, 1));
+		cache.getPlan(new Square(0, 0, 3));
+
+		assertEquals(2, cache.size());
+		assertEquals(3, cache.getMisses());
+		assertSame(first, cache.getPlan(new Square(5, 5, 1)));
+		cache.getPlan(new Square(0, 0, 2));
+		assertEquals(4, cache.getMisses());
+		assertEquals(2, cache.size());
+	}
+
+	@Test
+	public void testSetRadiusChangesPlan() {
+		RenderPlanCache cache = new RenderPlanCache();
+		Circle circle = new Circle(20, 20, 3);
+		RenderPlan small = cache.getPlan(circle);
+
+		circle.setRadius(8);
+		BWRaster expected = new BWRasterMem(40, 40);
+		BWRaster actual = new BWRasterMem(40, 40);
+		circle.draw(expected);
+		cache.draw(circle, actual);
+
+		assertFalse(small == cache.getPlan(circle));
+		assertEquals(new BoundingBox(-7, -7, 7, 7), cache.getPlan(circle).getBounds());
+		assertTrue(actual.isTurnedOn(27, 20));
+		assertSamePixels(expected, actual);
+		assertEquals(2, cache.getMisses());
+
+		circle.setRadius(3);
+		assertSame(small, cache.getPlan(circle));
+	}
+
+	@Test
+	public void testDrawAll() {
+		RenderPlanCache cache = new RenderPlanCache();
+		Ellipse template = new Ellipse(100, 100, 4, 2);
+		int[] positions = {0, 0, 10, 5, 18, 9, 29, 1};
+		BWRaster expected = new BWRasterMem(30, 10);
+		BWRaster actual = new BWRasterMem(30, 10);
+
+		for (int i = 0; i < positions.length; i += 2) {
+			new Ellipse(positions[i], positions[i + 1], 4, 2).draw(expected);
+		}
+		cache.drawAll(template, actual, positions);
+
+		assertSamePixels(expected, actual);
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testEmptyShape() {
+		RenderPlanCache cache = new RenderPlanCache();
+		Rectangle rectangle = new Rectangle(1, 1, 2, 2);
+		BWRaster raster = new BWRasterMem(5, 5);
+
+		rectangle.setHeight(0);
+		cache.draw(rectangle, raster);
+		cache.drawAll(rectangle, raster, new int[] {0, 0, 3, 3});
+
+		assertEquals(0, raster.cardinality());
+		assertEquals(0, cache.getPlan(rectangle).getSpanCount());
+	}
+
+	@Test
+	public void testClear() {
+		RenderPlanCache cache = new RenderPlanCache(10);
+		cache.getPlan(new Circle(0, 0, 1));
+		cache.getPlan(new Circle(0, 0, 1));
+
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getHits());
+		assertEquals(0, cache.getMisses());
+		assertEquals(10, cache.getCapacity());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalCapacity() {
+		new RenderPlanCache(0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalPositions() {
+		new RenderPlanCache().drawAll(new Circle(0, 0, 1), new BWRasterMem(5, 5), new int[] {1, 2, 3});
+	}
+
+}
@@ -0,0 +1,136 @@
+package hr.fer.zemris.java.graphics.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterBits;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.Circle;
+import hr.fer.zemris.java.graphics.shapes.Ellipse;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.Rectangle;
+import hr.fer.zemris.java.graphics.shapes.Square;
+
+public class RenderPlanTests {
+
+	private final static int[] POSITIONS = {
+			20, 15, 0, 0, 49, 29, -3, 14, 52, 10, 25, -4, 25, 33, -6, -6, 55, 35,
+			5, 3, 40, 25, 4, 2, 41, 26, 20, 15, -100, 12, 300, 300,
+			Integer.MAX_VALUE, 10, Integer.MIN_VALUE, Integer.MIN_VALUE, 10, Integer.MAX_VALUE
+	};
+
+	private static GeometricShape[] templates() {
+		return new GeometricShape[] {
+				new Circle(100, 100, 7), new Circle(-40, 3, 30), new Ellipse(7, -2, 9, 3), new Ellipse(0, 0, 1, 6),
+				new Rectangle(-5, 8, 13, 5), new Rectangle(0, 0, 80, 2), new Square(3, 3, 1)
+		};
+	}
+
+	private static void assertSamePixels(BWRaster expected, BWRaster actual) {
+		for (int y = 0; y < expected.getHeight(); ++y) {
+			for (int x = 0; x < expected.getWidth(); ++x) {
+				assertEquals("Pixel (" + x + ", " + y + ")", expected.isTurnedOn(x, y), actual.isTurnedOn(x, y));
+			}
+		}
+	}
+
+	private static void drawAt(GeometricShape shape, BWRaster r, int[] positions, BoundingBox clip) {
+		for (int i = 0; i < positions.length; i += 2) {
+			shape.setX(positions[i]);
+			shape.setY(positions[i + 1]);
+			shape.draw(r, clip);
+		}
+	}
+
+	@Test
+	public void testStampAllSameAsShapes() {
+		for (GeometricShape shape : templates()) {
+			RenderPlan plan = RenderPlan.compile(shape);
+			BWRaster expected = new BWRasterMem(50, 30);
+			BWRaster actual = new BWRasterBits(50, 30);
+
+			drawAt(shape, expected, POSITIONS, BoundingBox.of(expected));
+			plan.stampAll(actual, POSITIONS);
+
+			assertSamePixels(expected, actual);
+		}
+	}
+
+	@Test
+	public void testStampAllClipped() {
+		BoundingBox clip = new BoundingBox(5, 3, 40, 25);
+		for (GeometricShape shape : templates()) {
+			RenderPlan plan = RenderPlan.compile(shape);
+			BWRaster expected = new BWRasterMem(50, 30);
+			BWRaster actual = new BWRasterMem(50, 30);
+			expected.enableFlipMode();
+			actual.enableFlipMode();
+
+			drawAt(shape, expected, POSITIONS, clip);
+			plan.stampAll(actual, POSITIONS, clip);
+
+			assertSamePixels(expected, actual);
+			assertEquals(0, actual.cardinality(new BoundingBox(0, 0, 49, 2)));
+			assertEquals(0, actual.cardinality(new BoundingBox(41, 0, 49, 29)));
+		}
+	}
+
+	@Test
+	public void testStampAllRandomPositions() {
+		Random random = new Random(18);
+		for (GeometricShape shape : templates()) {
+			RenderPlan plan = RenderPlan.compile(shape);
+			int[] positions = new int[200];
+			for (int i = 0; i < positions.length; ++i) {
+				positions[i] = random.nextInt(160) - 50;
+			}
+			BoundingBox clip = new BoundingBox(random.nextInt(20), random.nextInt(20), 20 + random.nextInt(50),
+					20 + random.nextInt(20));
+			BWRaster expected = new BWRasterMem(70, 40);
+			BWRaster actual = new BWRasterBits(70, 40);
+			expected.enableFlipMode();
+			actual.enableFlipMode();
+
+			drawAt(shape, expected, positions, clip);
+			plan.stampAll(actual, positions, clip);
+
+			assertSamePixels(expected, actual);
+		}
+	}
+
+	@Test
+	public void testEmptyPlan() {
+		Rectangle rectangle = new Rectangle(2, 2, 4, 4);
+		rectangle.setHeight(-1);
+		RenderPlan plan = RenderPlan.compile(rectangle);
+		BWRaster raster = new BWRasterMem(10, 10);
+
+		plan.stampAll(raster, new int[] {0, 0, 5, 5});
+
+		assertNull(plan.getBounds());
+		assertEquals(0, plan.getSpanCount());
+		assertEquals(0, raster.cardinality());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testOddPositions() {
+		RenderPlan.compile(new Square(0, 0, 2)).stampAll(new BWRasterMem(5, 5), new int[] {1, 2, 3});
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullPositions() {
+		RenderPlan.compile(new Square(0, 0, 2)).stampAll(new BWRasterMem(5, 5), null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullShape() {
+		RenderPlan.compile(null);
+	}
+
+}
@@ -0,0 +1,147 @@
+package hr.fer.zemris.java.graphics.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterBits;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.shapes.Circle;
+import hr.fer.zemris.java.graphics.shapes.Ellipse;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.Rectangle;
+import hr.fer.zemris.java.graphics.shapes.Square;
+
+public class SceneRendererTests {
+
+	private static void drawSequentially(BWRaster raster, GeometricShape[] shapes) {
+		raster.disableFlipMode();
+		for (GeometricShape shape : shapes) {
+			if (shape == null) {
+				raster.enableFlipMode();
+			} else {
+				shape.draw(raster);
+			}
+		}
+	}
+
+	private static void assertSamePixels(BWRaster expected, BWRaster actual) {
+		for (int y = 0; y < expected.getHeight(); ++y) {
+			for (int x = 0; x < expected.getWidth(); ++x) {
+				assertEquals("Pixel (" + x + ", " + y + ")", expected.isTurnedOn(x, y), actual.isTurnedOn(x, y));
+			}
+		}
+	}
+
+	private static GeometricShape[] randomShapes(Random random, int count, int width, int height) {
+		GeometricShape[] shapes = new GeometricShape[count];
+		for (int i = 0; i < count; ++i) {
+			int x = random.nextInt(width + 40) - 20;
+			int y = random.nextInt(height + 40) - 20;
+			switch (random.nextInt(6)) {
+			case 0:
+				shapes[i] = null;
+				break;
+			case 1:
+				shapes[i] = new Rectangle(x, y, 1 + random.nextInt(60), 1 + random.nextInt(90));
+				break;
+			case 2:
+				shapes[i] = new Square(x, y, 1 + random.nextInt(70));
+				break;
+			case 3:
+				shapes[i] = new Ellipse(x, y, 1 + random.nextInt(40), 1 + random.nextInt(70));
+				break;
+			default:
+				shapes[i] = new Circle(x, y, 1 + random.nextInt(50));
+				break;
+			}
+		}
+		return shapes;
+	}
+
+	@Test
+	public void testSameAsSequentialDrawing() {
+		Random random = new Random(7);
+		SceneRenderer renderer = new SceneRenderer(new ForkJoinPool(4));
+		int[] heights = {1, 63, 64, 65, 127, 130, 200, 257};
+
+		for (int height : heights) {
+			for (int i = 0; i < 5; ++i) {
+				int width = 1 + random.nextInt(150);
+				GeometricShape[] shapes = randomShapes(random, 40, width, height);
+				BWRaster expected = new BWRasterMem(width, height);
+				BWRaster actual = new BWRasterBits(width, height);
+
+				drawSequentially(expected, shapes);
+				renderer.render(actual, shapes);
+
+				assertSamePixels(expected, actual);
+			}
+		}
+	}
+
+	@Test
+	public void testShapesCrossingBands() {
+		SceneRenderer renderer = new SceneRenderer(new ForkJoinPool(4));
+		GeometricShape[] shapes = {
+				new Rectangle(0, 60, 50, 10), new Circle(25, 64, 9), null, new Ellipse(30, 128, 20, 40),
+				new Square(10, 120, 70), new Rectangle(40, 0, 5, 200)
+		};
+		BWRaster expected = new BWRasterMem(80, 200);
+		BWRaster actual = new BWRasterMem(80, 200);
+
+		drawSequentially(expected, shapes);
+		renderer.render(actual, shapes);
+
+		assertSamePixels(expected, actual);
+		assertTrue(actual.isTurnedOn(5, 63));
+		assertTrue(actual.isTurnedOn(5, 64));
+		assertFalse(actual.isTurnedOn(42, 64));
+	}
+
+	@Test
+	public void testFlipModeStaysEnabled() {
+		SceneRenderer renderer = new SceneRenderer(new ForkJoinPool(2));
+		GeometricShape[] shapes = {
+				new Rectangle(0, 0, 10, 70), null, new Rectangle(5, 0, 10, 70), null, new Rectangle(8, 0, 10, 70)
+		};
+		BWRaster expected = new BWRasterMem(20, 70);
+		BWRaster actual = new BWRasterMem(20, 70);
+
+		drawSequentially(expected, shapes);
+		renderer.render(actual, shapes);
+
+		assertSamePixels(expected, actual);
+		assertFalse(actual.isTurnedOn(6, 69));
+		assertTrue(actual.isTurnedOn(9, 69));
+		assertFalse(actual.isTurnedOn(12, 69));
+		assertTrue(actual.isTurnedOn(17, 69));
+		actual.turnOn(0, 0);
+		assertFalse(actual.isTurnedOn(0, 0));
+	}
+
+	@Test
+	public void testEmptyShapes() {
+		SceneRenderer renderer = new SceneRenderer(new ForkJoinPool(2));
+		Rectangle empty = new Rectangle(0, 0, 10, 10);
+		empty.setWidth(0);
+		GeometricShape[] shapes = {empty, new Circle(Integer.MAX_VALUE, 0, 5), new Square(2, 2, 3)};
+		BWRaster raster = new BWRasterMem(10, 100);
+
+		renderer.render(raster, shapes);
+
+		assertEquals(9, raster.cardinality());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullShapes() {
+		new SceneRenderer().render(new BWRasterMem(1, 1), null);
+	}
+
+}
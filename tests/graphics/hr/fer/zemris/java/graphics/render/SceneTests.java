@@ -0,0 +1,200 @@
+package hr.fer.zemris.java.graphics.render;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+import hr.fer.zemris.java.graphics.shapes.Circle;
+import hr.fer.zemris.java.graphics.shapes.Ellipse;
+import hr.fer.zemris.java.graphics.shapes.GeometricShape;
+import hr.fer.zemris.java.graphics.shapes.Rectangle;
+import hr.fer.zemris.java.graphics.shapes.Square;
+
+public class SceneTests {
+
+	@Test
+	public void testShapesAt() {
+		Scene scene = new Scene(16);
+		Circle circle = new Circle(10, 10, 5);
+		Square square = new Square(8, 8, 10);
+		Rectangle rectangle = new Rectangle(100, 100, 3, 3);
+		scene.add(square);
+		scene.add(circle);
+		scene.add(rectangle);
+
+		assertEquals(Arrays.asList(square, circle), scene.shapesAt(10, 10));
+		assertEquals(Arrays.asList(square), scene.shapesAt(17, 17));
+		assertEquals(Arrays.asList(rectangle), scene.shapesAt(102, 100));
+		assertEquals(Collections.emptyList(), scene.shapesAt(50, 50));
+	}
+
+	@Test
+	public void testShapesAtAfterMove() {
+		Scene scene = new Scene(16);
+		Circle circle = new Circle(10, 10, 5);
+		scene.add(circle);
+
+		circle.setX(200);
+		circle.setY(-100);
+
+		assertEquals(Collections.emptyList(), scene.shapesAt(10, 10));
+		assertEquals(Arrays.asList(circle), scene.shapesAt(200, -100));
+		assertEquals(Arrays.asList(circle), scene.shapesAt(196, -100));
+	}
+
+	@Test
+	public void testShapesAtAfterResize() {
+		Scene scene = new Scene(16);
+		Circle circle = new Circle(10, 10, 2);
+		scene.add(circle);
+
+		circle.setRadius(40);
+
+		assertEquals(Arrays.asList(circle), scene.shapesAt(48, 10));
+		assertEquals(Arrays.asList(circle), scene.shapesAt(10, -28));
+	}
+
+	@Test
+	public void testOversizedShape() {
+		Scene scene = new Scene(4);
+		Rectangle large = new Rectangle(-1000, -1000, 3000, 3000);
+		Square small = new Square(500, 500, 2);
+		scene.add(small);
+		scene.add(large);
+
+		assertEquals(Arrays.asList(small, large), scene.shapesAt(500, 500));
+		assertEquals(Arrays.asList(large), scene.shapesIntersecting(new BoundingBox(-900, 1900, -800, 1999)));
+
+		large.setX(5000);
+		assertEquals(Arrays.asList(small), scene.shapesAt(500, 500));
+	}
+
+	@Test
+	public void testShapesIntersecting() {
+		Random random = new Random(42);
+		Scene scene = new Scene(32);
+		List<GeometricShape> shapes = new ArrayList<>();
+		for (int i = 0; i < 300; ++i) {
+			int x = random.nextInt(1000) - 500;
+			int y = random.nextInt(1000) - 500;
+			GeometricShape shape = i % 2 == 0 ? new Ellipse(x, y, 1 + random.nextInt(40), 1 + random.nextInt(40))
+					: new Rectangle(x, y, 1 + random.nextInt(80), 1 + random.nextInt(80));
+			shapes.add(shape);
+			scene.add(shape);
+		}
+		for (int i = 0; i < 50; i += 2) {
+			shapes.get(i).setX(shapes.get(i).getX() + 100);
+		}
+
+		for (int i = 0; i < 200; ++i) {
+			int minX = random.nextInt(1200) - 600;
+			int minY = random.nextInt(1200) - 600;
+			BoundingBox region = new BoundingBox(minX, minY, minX + random.nextInt(300), minY + random.nextInt(300));
+			List<GeometricShape> expected = new ArrayList<>();
+			for (GeometricShape shape : shapes) {
+				if (shape.getBounds().intersects(region)) {
+					expected.add(shape);
+				}
+			}
+
+			assertEquals(expected, scene.shapesIntersecting(region));
+		}
+	}
+
+	@Test
+	public void testEmptyShape() {
+		Scene scene = new Scene(16);
+		Rectangle rectangle = new Rectangle(10, 10, 5, 5);
+		Circle circle = new Circle(12, 12, 2);
+		scene.add(rectangle);
+		scene.add(circle);
+		BWRaster raster = new BWRasterMem(20, 20);
+
+		rectangle.setWidth(0);
+		scene.render(raster);
+
+		assertEquals(Arrays.asList(circle), scene.shapesAt(12, 12));
+		assertEquals(Arrays.asList(circle), scene.shapesIntersecting(new BoundingBox(0, 0, 19, 19)));
+		assertEquals(5, raster.cardinality());
+		rectangle.setWidth(3);
+		assertEquals(Arrays.asList(rectangle, circle), scene.shapesAt(12, 12));
+		assertTrue(scene.remove(rectangle));
+	}
+
+	@Test
+	public void testShapeNearIntLimits() {
+		Scene scene = new Scene(16);
+		Circle circle = new Circle(Integer.MAX_VALUE, Integer.MIN_VALUE, 5);
+
+		scene.add(circle);
+
+		assertEquals(Arrays.asList(circle), scene.shapesAt(Integer.MAX_VALUE - 4, Integer.MIN_VALUE));
+		assertEquals(Collections.emptyList(), scene.shapesAt(0, 0));
+	}
+
+	@Test
+	public void testRemove() {
+		Scene scene = new Scene();
+		Circle circle = new Circle(10, 10, 5);
+		scene.add(circle);
+
+		assertTrue(scene.remove(circle));
+		assertFalse(scene.remove(circle));
+		circle.setX(20);
+
+		assertFalse(scene.contains(circle));
+		assertEquals(0, scene.size());
+		assertEquals(Collections.emptyList(), scene.shapesAt(20, 10));
+	}
+
+	@Test
+	public void testRender() {
+		Scene scene = new Scene(8);
+		BWRaster expected = new BWRasterMem(40, 30);
+		BWRaster actual = new BWRasterMem(40, 30);
+		GeometricShape[] shapes = {
+				new Rectangle(0, 0, 20, 20), new Circle(15, 15, 8), new Square(-10, -10, 5), new Ellipse(39, 29, 6, 3)
+		};
+		expected.enableFlipMode();
+		actual.enableFlipMode();
+
+		for (GeometricShape shape : shapes) {
+			shape.draw(expected);
+			scene.add(shape);
+		}
+		scene.render(actual);
+
+		for (int y = 0; y < expected.getHeight(); ++y) {
+			for (int x = 0; x < expected.getWidth(); ++x) {
+				assertEquals(expected.isTurnedOn(x, y), actual.isTurnedOn(x, y));
+			}
+		}
+		assertEquals(Arrays.asList(shapes), scene.getShapes());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddTwice() {
+		Scene scene = new Scene();
+		Circle circle = new Circle(10, 10, 5);
+		scene.add(circle);
+
+		scene.add(circle);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIllegalCellSize() {
+		new Scene(0);
+	}
+
+}
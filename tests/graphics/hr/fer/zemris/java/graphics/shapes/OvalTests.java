@@ -0,0 +1,244 @@
+package hr.fer.zemris.java.graphics.shapes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+
+public class OvalTests {
+
+	private static boolean containsPointDouble(Oval oval, int x, int y) {
+		// the original elliptical formula evaluated in double precision
+		double result = 0;
+		if (oval.horizontalRadius == 1) {
+			if (x != oval.getX()) {
+				return false;
+			}
+		} else {
+			result += Math.pow((double) (x - oval.getX()) / (oval.horizontalRadius - 1), 2);
+		}
+		if (oval.verticalRadius == 1) {
+			if (y != oval.getY()) {
+				return false;
+			}
+		} else {
+			result += Math.pow((double) (y - oval.getY()) / (oval.verticalRadius - 1), 2);
+		}
+		return result <= 1;
+	}
+
+	private static void assertContainsNearBoundary(Oval oval, Random random, int rows) {
+		long a = oval.horizontalRadius - 1L;
+		long b = oval.verticalRadius - 1L;
+		for (int i = 0; i < rows; ++i) {
+			long dy = i < 3 ? b - i : i < 6 ? i - 3 : (long) (random.nextDouble() * (b + 1));
+			double ratio = b == 0 ? 0 : (double) dy / b;
+			long half = (long) (a * Math.sqrt(Math.max(0, 1 - ratio * ratio)));
+			for (long dx = half - 3; dx <= half + 3; ++dx) {
+				for (int sign = -1; sign <= 1; sign += 2) {
+					int x = (int) (oval.getX() + sign * dx);
+					int y = (int) (oval.getY() + sign * dy);
+					assertEquals(oval.getGeometry() + " at (" + x + ", " + y + ")",
+							containsPointDouble(oval, x, y), oval.containsPoint(x, y));
+				}
+			}
+		}
+	}
+
+	private static void assertRowMatchesContainsPoint(Oval oval, int row) {
+		BoundingBox bounds = oval.getBounds();
+		int[] spans = new int[3];
+		oval.emitSpans((y, x0, x1) -> {
+			assertEquals(row, y);
+			++spans[0];
+			spans[1] = x0;
+			spans[2] = x1;
+		}, new BoundingBox(bounds.getMinX(), row, bounds.getMaxX(), row));
+
+		String message = oval.getGeometry() + " at row " + row;
+		if (spans[0] == 0) {
+			assertFalse(message, oval.containsPoint(oval.getX(), row));
+			return;
+		}
+		assertEquals(message, 1, spans[0]);
+		assertTrue(message, oval.containsPoint(spans[1], row));
+		assertTrue(message, oval.containsPoint(spans[2] - 1, row));
+		assertTrue(message, oval.containsPoint(oval.getX(), row));
+		assertFalse(message, spans[1] > bounds.getMinX() && oval.containsPoint(spans[1] - 1, row));
+		assertFalse(message, spans[2] <= bounds.getMaxX() && oval.containsPoint(spans[2], row));
+	}
+
+	@Test
+	public void testContainsPointMatchesDoubleFormula() {
+		for (int hr = 1; hr <= 40; ++hr) {
+			for (int vr = 1; vr <= 40; ++vr) {
+				Ellipse ellipse = new Ellipse(hr - 7, 3 - vr, hr, vr);
+				for (int y = ellipse.getY() - vr - 1; y <= ellipse.getY() + vr + 1; ++y) {
+					for (int x = ellipse.getX() - hr - 1; x <= ellipse.getX() + hr + 1; ++x) {
+						assertEquals(ellipse.getGeometry() + " at (" + x + ", " + y + ")",
+								containsPointDouble(ellipse, x, y), ellipse.containsPoint(x, y));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testContainsPointOfLargeOvalsMatchesDoubleFormula() {
+		Random random = new Random(20);
+		int[][] radii = {
+				{55109, 55109}, {55110, 55110}, {55108, 55109}, {433857215, 8}, {433857216, 8}, {1518500250, 3},
+				{1518500251, 3}, {120499943, 3}, {3, 120499943}, {Integer.MAX_VALUE, Integer.MAX_VALUE},
+				{Integer.MAX_VALUE, 1}, {1, Integer.MAX_VALUE}, {65536, 46342}, {1000001, 3001}
+		};
+		for (int[] r : radii) {
+			assertContainsNearBoundary(new Ellipse(0, 0, r[0], r[1]), random, 200);
+		}
+	}
+
+	@Test
+	public void testContainsPointOfRandomOvalsMatchesDoubleFormula() {
+		Random random = new Random(2020);
+		for (int i = 0; i < 3000; ++i) {
+			int hr = 1 + (int) Math.min(Integer.MAX_VALUE - 1L, (long) Math.pow(2, random.nextDouble() * 31));
+			int vr = 1 + (int) Math.min(Integer.MAX_VALUE - 1L, (long) Math.pow(2, random.nextDouble() * 31));
+			assertContainsNearBoundary(new Ellipse(0, 0, hr, vr), random, 10);
+		}
+	}
+
+	@Test
+	public void testContainsPoints() {
+		Random random = new Random(5);
+		Circle circle = new Circle(20, -10, 17);
+		int[] xs = new int[500];
+		int[] ys = new int[500];
+		boolean[] out = new boolean[501];
+		for (int i = 0; i < xs.length; ++i) {
+			xs[i] = random.nextInt(50) - 5;
+			ys[i] = random.nextInt(50) - 35;
+		}
+		out[500] = true;
+
+		circle.containsPoints(xs, ys, out);
+
+		for (int i = 0; i < xs.length; ++i) {
+			assertEquals(containsPointDouble(circle, xs[i], ys[i]), out[i]);
+			assertEquals(circle.containsPoint(xs[i], ys[i]), out[i]);
+		}
+		assertTrue(out[500]);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testContainsPointsOfDifferentLengths() {
+		new Circle(0, 0, 3).containsPoints(new int[2], new int[3], new boolean[3]);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testContainsPointsWithShortResult() {
+		new Circle(0, 0, 3).containsPoints(new int[3], new int[3], new boolean[2]);
+	}
+
+	@Test
+	public void testSpansMatchContainsPoint() {
+		for (int hr = 1; hr <= 30; ++hr) {
+			for (int vr = 1; vr <= 30; ++vr) {
+				Ellipse ellipse = new Ellipse(hr, vr, hr, vr);
+				BWRaster raster = new BWRasterMem(2 * hr + 1, 2 * vr + 1);
+
+				ellipse.draw(raster);
+
+				for (int y = 0; y < raster.getHeight(); ++y) {
+					for (int x = 0; x < raster.getWidth(); ++x) {
+						assertEquals(ellipse.getGeometry() + " at (" + x + ", " + y + ")",
+								ellipse.containsPoint(x, y), raster.isTurnedOn(x, y));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSpansOfLargeOvalsMatchContainsPoint() {
+		int[][] radii = {
+				{120499943, 3}, {3, 120499943}, {95000000, 2}, {95000000, 5}, {1 << 30, 2},
+				{Integer.MAX_VALUE, 2}, {Integer.MAX_VALUE, Integer.MAX_VALUE}, {55109, 55109},
+				{55110, 55110}, {46341, 65537}
+		};
+		for (int[] r : radii) {
+			Ellipse ellipse = new Ellipse(0, 0, r[0], r[1]);
+			for (int dy = 0; dy < Math.min(r[1], 50); ++dy) {
+				assertRowMatchesContainsPoint(ellipse, r[1] - 1 - dy);
+				assertRowMatchesContainsPoint(ellipse, dy - r[1] + 1);
+			}
+			assertRowMatchesContainsPoint(ellipse, 0);
+		}
+	}
+
+	@Test
+	public void testSpansOfRandomOvalsMatchContainsPoint() {
+		Random random = new Random(2024);
+		for (int i = 0; i < 2000; ++i) {
+			int hr = 1 + (int) Math.min(Integer.MAX_VALUE - 1L, (long) Math.pow(2, random.nextDouble() * 31));
+			int vr = 1 + random.nextInt(random.nextBoolean() ? 8 : 100000);
+			Ellipse ellipse = random.nextBoolean() ? new Ellipse(0, 0, hr, vr) : new Ellipse(0, 0, vr, hr);
+			int height = ellipse.getVerticalRadius();
+			for (int j = 0; j < 8; ++j) {
+				int dy = j < 4 ? j : random.nextInt(height);
+				assertRowMatchesContainsPoint(ellipse, height - 1 - dy);
+			}
+		}
+	}
+
+	@Test
+	public void testEmptyOval() {
+		BWRaster raster = new BWRasterMem(10, 10);
+		Ellipse ellipse = new Ellipse(5, 5, 3, 3);
+		Circle circle = new Circle(5, 5, 3);
+
+		ellipse.setHorizontalRadius(0);
+		circle.setRadius(-2);
+		ellipse.draw(raster);
+		circle.draw(raster);
+
+		assertNull(ellipse.getBounds());
+		assertNull(circle.getBounds());
+		assertFalse(ellipse.containsPoint(5, 5));
+		assertEquals(0, raster.cardinality());
+	}
+
+	@Test
+	public void testBoundsNearIntLimits() {
+		BWRaster raster = new BWRasterMem(10, 10);
+		Circle circle = new Circle(Integer.MAX_VALUE, 0, 5);
+		Ellipse ellipse = new Ellipse(Integer.MIN_VALUE, 3, Integer.MAX_VALUE, 2);
+
+		circle.draw(raster);
+		ellipse.draw(raster);
+
+		assertEquals(0, raster.cardinality());
+		assertEquals(new BoundingBox(Integer.MAX_VALUE - 4, -4, Integer.MAX_VALUE, 4), circle.getBounds());
+		assertEquals(new BoundingBox(Integer.MIN_VALUE, 2, -2, 4), ellipse.getBounds());
+		assertTrue(circle.containsPoint(Integer.MAX_VALUE, 4));
+	}
+
+	@Test
+	public void testCircleSpans() {
+		BWRaster raster = new BWRasterMem(7, 7);
+
+		new Circle(3, 3, 4).draw(raster);
+
+		assertEquals(29, raster.cardinality());
+		assertTrue(raster.isTurnedOn(0, 3));
+		assertFalse(raster.isTurnedOn(0, 2));
+		assertTrue(raster.isTurnedOn(1, 1));
+	}
+
+}
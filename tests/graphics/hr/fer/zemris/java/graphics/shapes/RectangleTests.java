@@ -0,0 +1,90 @@
+package hr.fer.zemris.java.graphics.shapes;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BoundingBox;
+
+public class RectangleTests {
+
+	private static void assertDrawsContainedPoints(GeometricShape shape, BWRaster raster) {
+		shape.draw(raster);
+
+		for (int y = 0; y < raster.getHeight(); ++y) {
+			for (int x = 0; x < raster.getWidth(); ++x) {
+				assertEquals("Pixel (" + x + ", " + y + ")", shape.containsPoint(x, y), raster.isTurnedOn(x, y));
+			}
+		}
+	}
+
+	@Test
+	public void testDrawsLastRowAndColumn() {
+		BWRaster raster = new BWRasterMem(10, 5);
+
+		new Rectangle(7, 3, 3, 2).draw(raster);
+
+		assertEquals(6, raster.cardinality());
+		assertTrue(raster.isTurnedOn(9, 4));
+		assertTrue(raster.isTurnedOn(7, 3));
+		assertFalse(raster.isTurnedOn(6, 4));
+	}
+
+	@Test
+	public void testDrawsContainedPoints() {
+		assertDrawsContainedPoints(new Rectangle(0, 0, 10, 5), new BWRasterMem(10, 5));
+		assertDrawsContainedPoints(new Rectangle(-3, -2, 8, 4), new BWRasterMem(10, 5));
+		assertDrawsContainedPoints(new Rectangle(6, 1, 100, 100), new BWRasterMem(10, 5));
+		assertDrawsContainedPoints(new Square(9, 4, 1), new BWRasterMem(10, 5));
+		assertDrawsContainedPoints(new Square(10, 0, 3), new BWRasterMem(10, 5));
+	}
+
+	@Test
+	public void testEmptyRectangle() {
+		BWRaster raster = new BWRasterMem(10, 5);
+		Rectangle rectangle = new Rectangle(2, 2, 3, 3);
+		Square square = new Square(5, 1, 2);
+
+		rectangle.setWidth(0);
+		square.setSize(-1);
+		rectangle.draw(raster);
+		square.draw(raster);
+
+		assertNull(rectangle.getBounds());
+		assertNull(square.getBounds());
+		assertEquals(0, raster.cardinality());
+		rectangle.setWidth(1);
+		assertEquals(new BoundingBox(2, 2, 2, 4), rectangle.getBounds());
+	}
+
+	@Test
+	public void testBoundsNearIntLimits() {
+		BWRaster raster = new BWRasterMem(10, 5);
+		Rectangle rectangle = new Rectangle(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, 5, 5);
+
+		rectangle.draw(raster);
+
+		assertEquals(0, raster.cardinality());
+		assertEquals(new BoundingBox(Integer.MAX_VALUE, Integer.MAX_VALUE - 1, Integer.MAX_VALUE, Integer.MAX_VALUE),
+				rectangle.getBounds());
+	}
+
+	@Test
+	public void testDrawInFlipMode() {
+		BWRaster raster = new BWRasterMem(10, 5);
+		raster.enableFlipMode();
+
+		new Square(0, 0, 5).draw(raster);
+		new Rectangle(3, 0, 7, 5).draw(raster);
+
+		assertEquals(40, raster.cardinality());
+		assertFalse(raster.isTurnedOn(4, 4));
+		assertTrue(raster.isTurnedOn(9, 4));
+	}
+
+}
@@ -0,0 +1,122 @@
+package hr.fer.zemris.java.graphics.views;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterBits;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BWRasterSparse;
+import hr.fer.zemris.java.graphics.raster.BWRasterTiled;
+
+public class PbmRasterViewTests {
+
+	private static byte[] produce(BWRaster raster) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		new PbmRasterView(Channels.newChannel(output)).produce(raster);
+		return output.toByteArray();
+	}
+
+	private static byte[] expectedImage(BWRaster raster) {
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		byte[] header = ("P4\n" + raster.getWidth() + " " + raster.getHeight() + "\n")
+				.getBytes(StandardCharsets.US_ASCII);
+		output.write(header, 0, header.length);
+		for (int y = 0; y < raster.getHeight(); ++y) {
+			int bits = 0;
+			for (int x = 0; x < raster.getWidth(); ++x) {
+				bits = bits << 1 | (raster.isTurnedOn(x, y) ? 0 : 1);
+				if ((x & 7) == 7) {
+					output.write(bits);
+					bits = 0;
+				}
+			}
+			if ((raster.getWidth() & 7) != 0) {
+				output.write(bits << (8 - (raster.getWidth() & 7)));
+			}
+		}
+		return output.toByteArray();
+	}
+
+	private static void assertImage(BWRaster expected, BWRaster actual) {
+		byte[] image = produce(actual);
+
+		assertTrue(actual.getClass().getSimpleName() + " " + actual.getWidth() + "x" + actual.getHeight(),
+				Arrays.equals(expectedImage(expected), image));
+	}
+
+	@Test
+	public void testAllPathsMatchPixels() {
+		int[] widths = {1, 7, 8, 9, 63, 64, 65, 70, 127, 128, 130, 200};
+		for (int width : widths) {
+			for (int height : new int[] {1, 5}) {
+				BWRaster mem = new BWRasterMem(width, height);
+				BWRaster bits = new BWRasterBits(width, height);
+				BWRaster tiled = new BWRasterTiled(width, height);
+				BWRaster sparse = new BWRasterSparse(width, height);
+				ViewTesting.drawRandom(width * 31 + height, mem, bits, tiled, sparse);
+
+				assertImage(mem, mem);
+				assertImage(mem, bits);
+				assertImage(mem, tiled);
+				assertImage(mem, sparse);
+			}
+		}
+	}
+
+	@Test
+	public void testFullRows() {
+		for (int width : new int[] {1, 7, 9, 63, 65, 70}) {
+			BWRaster mem = new BWRasterMem(width, 2);
+			BWRaster bits = new BWRasterBits(width, 2);
+			BWRaster sparse = new BWRasterSparse(width, 2);
+			for (BWRaster raster : new BWRaster[] {mem, bits, sparse}) {
+				raster.fillSpan(0, 0, width);
+			}
+
+			assertImage(mem, mem);
+			assertImage(mem, bits);
+			assertImage(mem, sparse);
+		}
+	}
+
+	@Test
+	public void testHeaderAndPadding() {
+		BWRaster raster = new BWRasterBits(9, 2);
+		raster.turnOn(0, 0);
+		raster.turnOn(8, 1);
+
+		byte[] image = produce(raster);
+
+		byte[] expected = {'P', '4', '\n', '9', ' ', '2', '\n', 0x7F, (byte) 0x80, (byte) 0xFF, 0x00};
+		assertTrue(Arrays.equals(expected, image));
+	}
+
+	@Test
+	public void testLargerThanBuffer() {
+		BWRaster mem = new BWRasterMem(1001, 600);
+		BWRaster bits = new BWRasterBits(1001, 600);
+		BWRaster sparse = new BWRasterSparse(1001, 600);
+		ViewTesting.drawRandom(11, mem, bits, sparse);
+
+		byte[] expected = expectedImage(mem);
+
+		assertEquals(12 + 126 * 600, expected.length);
+		assertTrue(Arrays.equals(expected, produce(mem)));
+		assertTrue(Arrays.equals(expected, produce(bits)));
+		assertTrue(Arrays.equals(expected, produce(sparse)));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullChannel() {
+		new PbmRasterView(null);
+	}
+
+}
@@ -0,0 +1,106 @@
+package hr.fer.zemris.java.graphics.views;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+
+public class SimpleRasterViewTests {
+
+	@Test
+	public void testFormatRowMatchesPixels() {
+		for (int width : ViewTesting.WIDTHS) {
+			BWRaster[] rasters = ViewTesting.rasters(width, 6);
+			ViewTesting.drawRandom(width, rasters);
+			for (int y = 0; y < 6; ++y) {
+				char[] expected = new char[width + 5];
+				Arrays.fill(expected, '?');
+				for (int x = 0; x < width; ++x) {
+					expected[x + 3] = rasters[0].isTurnedOn(x, y) ? '#' : '_';
+				}
+
+				for (BWRaster raster : rasters) {
+					char[] row = new char[width + 5];
+					Arrays.fill(row, '?');
+					RasterRows.formatRow(raster, y, row, 3, '#', '_');
+
+					assertArrayEquals(raster.getClass().getSimpleName() + " row " + y, expected, row);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testProduceMatchesPixels() {
+		for (int width : ViewTesting.WIDTHS) {
+			BWRaster[] rasters = ViewTesting.rasters(width, 9);
+			ViewTesting.drawRandom(width + 1, rasters);
+			String expected = ViewTesting.formatPixels(rasters[0], 'o', ' ', System.lineSeparator());
+
+			for (BWRaster raster : rasters) {
+				StringWriter out = new StringWriter();
+				new SimpleRasterView('o', ' ', out).produce(raster);
+
+				assertEquals(raster.getClass().getSimpleName() + " " + width, expected, out.toString());
+			}
+		}
+	}
+
+	@Test
+	public void testReusedView() {
+		StringWriter out = new StringWriter();
+		SimpleRasterView view = new SimpleRasterView('*', '.', out);
+		BWRaster[] small = ViewTesting.rasters(5, 2);
+		BWRaster[] large = ViewTesting.rasters(70, 3);
+		ViewTesting.drawRandom(1, small);
+		ViewTesting.drawRandom(2, large);
+
+		view.produce(large[1]);
+		view.produce(small[3]);
+		view.produce(large[2]);
+
+		String separator = System.lineSeparator();
+		assertEquals(ViewTesting.formatPixels(large[0], '*', '.', separator)
+				+ ViewTesting.formatPixels(small[0], '*', '.', separator)
+				+ ViewTesting.formatPixels(large[0], '*', '.', separator), out.toString());
+	}
+
+	@Test
+	public void testDefaultOutput() {
+		BWRaster[] rasters = ViewTesting.rasters(65, 4);
+		ViewTesting.drawRandom(3, rasters);
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		PrintStream stdout = System.out;
+
+		try {
+			System.setOut(new PrintStream(expected));
+			for (int y = 0; y < 4; ++y) {
+				for (int x = 0; x < 65; ++x) {
+					System.out.print(rasters[0].isTurnedOn(x, y) ? '*' : '.');
+				}
+				System.out.println();
+			}
+			System.out.flush();
+			System.setOut(new PrintStream(actual));
+			new SimpleRasterView().produce(rasters[1]);
+		} finally {
+			System.setOut(stdout);
+		}
+
+		assertEquals(expected.toString(), actual.toString());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNullWriter() {
+		new SimpleRasterView('*', '.', null);
+	}
+
+}
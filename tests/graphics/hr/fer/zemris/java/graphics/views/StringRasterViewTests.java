@@ -0,0 +1,110 @@
+package hr.fer.zemris.java.graphics.views;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+
+public class StringRasterViewTests {
+
+	@Test
+	public void testProduceMatchesPixels() {
+		StringRasterView view = new StringRasterView();
+		for (int width : ViewTesting.WIDTHS) {
+			BWRaster[] rasters = ViewTesting.rasters(width, 7);
+			ViewTesting.drawRandom(width, rasters);
+			String expected = ViewTesting.formatPixels(rasters[0], '*', '.', "\n");
+
+			for (BWRaster raster : rasters) {
+				assertEquals(raster.getClass().getSimpleName() + " " + width, expected, view.produce(raster));
+			}
+		}
+	}
+
+	@Test
+	public void testProduceIntoArray() {
+		StringRasterView view = new StringRasterView('1', '0');
+		for (int width : ViewTesting.WIDTHS) {
+			BWRaster[] rasters = ViewTesting.rasters(width, 3);
+			ViewTesting.drawRandom(width + 2, rasters);
+			String expected = ViewTesting.formatPixels(rasters[0], '1', '0', "\n");
+
+			for (BWRaster raster : rasters) {
+				char[] dest = new char[expected.length() + 6];
+				Arrays.fill(dest, '?');
+				int written = view.produce(raster, dest, 4);
+
+				assertEquals(expected.length(), written);
+				assertEquals("????" + expected + "??", new String(dest));
+			}
+		}
+	}
+
+	@Test
+	public void testProduceIntoBuffers() {
+		StringRasterView view = new StringRasterView('#', ' ');
+		for (int width : ViewTesting.WIDTHS) {
+			BWRaster[] rasters = ViewTesting.rasters(width, 4);
+			ViewTesting.drawRandom(width + 3, rasters);
+			String expected = ViewTesting.formatPixels(rasters[0], '#', ' ', "\n");
+
+			for (BWRaster raster : rasters) {
+				CharBuffer heap = CharBuffer.allocate(expected.length() + 5);
+				heap.position(2);
+				CharBuffer direct = ByteBuffer.allocateDirect(2 * expected.length() + 4).asCharBuffer();
+				direct.put('!');
+
+				assertEquals(expected.length(), view.produce(raster, heap));
+				assertEquals(expected.length(), view.produce(raster, direct));
+				assertEquals(expected.length() + 2, heap.position());
+				assertEquals(expected.length() + 1, direct.position());
+				heap.flip().position(2);
+				direct.flip().position(1);
+				assertEquals(expected, heap.toString());
+				assertEquals(expected, direct.toString());
+			}
+		}
+	}
+
+	@Test
+	public void testRepeatedSnapshots() {
+		StringRasterView view = new StringRasterView();
+		BWRaster[] rasters = ViewTesting.rasters(65, 5);
+		char[] dest = new char[66 * 5];
+		CharBuffer direct = ByteBuffer.allocateDirect(2 * dest.length).asCharBuffer();
+
+		for (int i = 0; i < 4; ++i) {
+			ViewTesting.drawRandom(i, rasters);
+			String expected = ViewTesting.formatPixels(rasters[0], '*', '.', "\n");
+			view.produce(rasters[i], dest, 0);
+			direct.clear();
+			view.produce(rasters[3 - i], direct);
+			direct.flip();
+
+			assertEquals(expected, new String(dest));
+			assertEquals(expected, direct.toString());
+		}
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testArrayTooSmall() {
+		new StringRasterView().produce(new BWRasterMem(3, 2), new char[8], 1);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNegativeOffset() {
+		new StringRasterView().produce(new BWRasterMem(3, 2), new char[10], -1);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testBufferTooSmall() {
+		new StringRasterView().produce(new BWRasterMem(3, 2), CharBuffer.allocate(7));
+	}
+
+}
@@ -0,0 +1,90 @@
+package hr.fer.zemris.java.graphics.views;
+
+import java.util.Random;
+
+import hr.fer.zemris.java.graphics.raster.BWRaster;
+import hr.fer.zemris.java.graphics.raster.BWRasterBits;
+import hr.fer.zemris.java.graphics.raster.BWRasterMem;
+import hr.fer.zemris.java.graphics.raster.BWRasterSparse;
+import hr.fer.zemris.java.graphics.raster.BWRasterTiled;
+
+/**
+ * Helper methods which draw the same random image on rasters read by the
+ * different paths of the views, and format it pixel by pixel the way the
+ * textual views originally did.
+ *
+ * @author labramusic
+ *
+ */
+final class ViewTesting {
+
+	/**
+	 * Widths around the byte and word boundaries of bit-packed rows.
+	 */
+	final static int[] WIDTHS = {1, 7, 8, 9, 63, 64, 65, 70, 127, 128, 130, 200};
+
+	/**
+	 * Private constructor which prevents instantiation.
+	 */
+	private ViewTesting() {
+	}
+
+	/**
+	 * Returns a raster read pixel by pixel, followed by the rasters read
+	 * word by word and the one read run by run, all of the given dimensions.
+	 * @param width raster width
+	 * @param height raster height
+	 * @return rasters of the given dimensions
+	 */
+	static BWRaster[] rasters(int width, int height) {
+		return new BWRaster[] {
+				new BWRasterMem(width, height), new BWRasterBits(width, height),
+				new BWRasterTiled(width, height), new BWRasterSparse(width, height)
+		};
+	}
+
+	/**
+	 * Fills and flips the same random spans of each of the given rasters,
+	 * which must be of the same dimensions.
+	 * @param seed seed of the random sequence
+	 * @param rasters rasters
+	 */
+	static void drawRandom(long seed, BWRaster... rasters) {
+		Random random = new Random(seed);
+		int width = rasters[0].getWidth();
+		int height = rasters[0].getHeight();
+		for (int i = 0; i < 3 * height; ++i) {
+			int y = random.nextInt(height);
+			int x0 = random.nextInt(width);
+			int x1 = x0 + 1 + random.nextInt(width - x0);
+			boolean flip = random.nextInt(3) == 0;
+			for (BWRaster raster : rasters) {
+				if (flip) {
+					raster.flipSpan(y, x0, x1);
+				} else {
+					raster.fillSpan(y, x0, x1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Formats the image pixel by pixel, ending each row with the separator.
+	 * @param raster raster
+	 * @param onChar character representing pixels that are turned on
+	 * @param offChar character representing pixels that are turned off
+	 * @param separator row separator
+	 * @return textual representation of the image
+	 */
+	static String formatPixels(BWRaster raster, char onChar, char offChar, String separator) {
+		StringBuilder sb = new StringBuilder();
+		for (int y = 0; y < raster.getHeight(); ++y) {
+			for (int x = 0; x < raster.getWidth(); ++x) {
+				sb.append(raster.isTurnedOn(x, y) ? onChar : offChar);
+			}
+			sb.append(separator);
+		}
+		return sb.toString();
+	}
+
+}